@@ -0,0 +1,68 @@
+package com.clinic.domain;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prescription appends and full event replay, i.e. what {@code AppointmentEntity.applyEvent} does on recovery,
+ * and the same replay folded into an {@link Appointment.Builder} ({@code replayWithBuilder}).
+ * {@code addPrescriptions} grows a list by appending to the latest version each time, {@code branchPrescription}
+ * appends to a version that has already been appended to, which is the copying path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AppointmentBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    int events;
+
+    private AppointmentEvents.AppointmentCreated created;
+    private List<AppointmentEvents> history;
+    private Appointment withPrescriptions;
+
+    @Setup
+    public void setup() {
+        created = new AppointmentEvents.AppointmentCreated(LocalDateTime.of(2031, 1, 1, 10, 0), "house", "patient", "issue");
+        history = new ArrayList<>(events);
+        history.add(new AppointmentEvents.Scheduled());
+        history.add(new AppointmentEvents.AddedDoctorNotes("notes"));
+        for (int i = history.size(); i < events; i++)
+            history.add(new AppointmentEvents.AddedPrescription("prescription-" + i));
+
+        withPrescriptions = replay();
+    }
+
+    @Benchmark
+    public Appointment addPrescriptions() {
+        var state = new Appointment("a1", created.dateTime(), created.doctorId(), created.patientId(), created.issue());
+        for (int i = 0; i < events; i++)
+            state = state.addPrescription("prescription");
+        return state;
+    }
+
+    @Benchmark
+    public Appointment branchPrescription() {
+        return withPrescriptions.addPrescription("one more");
+    }
+
+    @Benchmark
+    public Appointment replay() {
+        var state = new Appointment("a1", created.dateTime(), created.doctorId(), created.patientId(), created.issue());
+        for (var event : history)
+            state = state.onEvent(event);
+        return state;
+    }
+
+    @Benchmark
+    public Appointment replayWithBuilder() {
+        return Appointment.replay("a1", created, history);
+    }
+}
@@ -0,0 +1,71 @@
+package com.clinic.domain;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot paths of {@link Schedule} with a growing number of booked slots.
+ * A day holds at most 288 slots of the 5 minute minimum, so 280 is the busiest realistic case.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScheduleBenchmark {
+
+    private static final Duration SLOT = Duration.ofMinutes(5);
+
+    @Param({"0", "10", "100", "280"})
+    int existingSlots;
+
+    private Schedule.ScheduleId id;
+    private Schedule.WorkingHours workingHours;
+    private List<Schedule.TimeSchedule> persistedSlots;
+    private Schedule schedule;
+    private LocalTime freeStartTime;
+    private Schedule.TimeSchedule bookedSlot;
+
+    @Setup
+    public void setup() {
+        id = new Schedule.ScheduleId("house", LocalDate.of(2031, 1, 1));
+        workingHours = new Schedule.WorkingHours(LocalTime.MIN, LocalTime.of(23, 59));
+        schedule = new Schedule(id, workingHours);
+        for (int i = 0; i < existingSlots; i++)
+            schedule = schedule.scheduleAppointment(LocalTime.MIN.plus(SLOT.multipliedBy(i)), SLOT, "a" + i);
+
+        // what a schedule looks like after being read back from storage
+        persistedSlots = new ArrayList<>(schedule.timeSlots());
+        freeStartTime = LocalTime.of(23, 30);
+        bookedSlot = existingSlots == 0 ? null : schedule.timeSlots().get(existingSlots / 2);
+    }
+
+    @Benchmark
+    public Schedule construct() {
+        return new Schedule(id, workingHours, persistedSlots, Schedule.Status.ACTIVE);
+    }
+
+    @Benchmark
+    public Schedule scheduleAppointment() {
+        return schedule.scheduleAppointment(freeStartTime, SLOT, "new");
+    }
+
+    @Benchmark
+    public Schedule removeTimeSlot() {
+        if (bookedSlot == null)
+            return schedule;
+        return schedule.removeTimeSlot(bookedSlot.appointmentId(), bookedSlot.startTime());
+    }
+
+    @Benchmark
+    public List<Schedule.FreeSlot> freeSlots() {
+        return schedule.freeSlots();
+    }
+}
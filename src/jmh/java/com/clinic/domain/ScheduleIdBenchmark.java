@@ -0,0 +1,54 @@
+package com.clinic.domain;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building and parsing schedule entity ids, done on every {@code ScheduleEntity} activation.
+ * The {@code legacy} benchmarks keep the former split/concatenation code as a baseline for the allocation profile.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScheduleIdBenchmark {
+
+    private Schedule.ScheduleId id;
+    private String key;
+
+    @Setup
+    public void setup() {
+        id = new Schedule.ScheduleId("house", LocalDate.of(2031, 1, 1));
+        key = id.toString();
+    }
+
+    @Benchmark
+    public String encode() {
+        return id.toString();
+    }
+
+    @Benchmark
+    public Schedule.ScheduleId decode() {
+        return Schedule.ScheduleId.fromString(key);
+    }
+
+    @Benchmark
+    public Schedule.ScheduleId decodeUncached() {
+        return EntityKeys.decodeScheduleId(key);
+    }
+
+    @Benchmark
+    public String legacyEncode() {
+        return id.doctorId() + ":" + id.date().toString();
+    }
+
+    @Benchmark
+    public Schedule.ScheduleId legacyDecode() {
+        var splitted = key.split(":");
+        return new Schedule.ScheduleId(splitted[0], LocalDate.parse(splitted[1]));
+    }
+}
@@ -0,0 +1,95 @@
+package com.clinic.domain;
+
+import akka.javasdk.JsonSupport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.NopAnnotationIntrospector;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode/decode time of the persisted {@link StoredSchedule} state and an appointment event, in the original JSON
+ * shape ({@code legacy}, the SDK mapper with the {@link CompactJson} annotations ignored) and in the compact one.
+ * The encode benchmarks report the encoded size in bytes as the {@code scheduleBytes} and {@code eventBytes} counters.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    private static final Duration SLOT = Duration.ofMinutes(15);
+
+    @Param({"legacy", "compact"})
+    String format;
+
+    @Param({"10", "40"})
+    int slots;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EncodedSize {
+        public long scheduleBytes;
+        public long eventBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            scheduleBytes = 0;
+            eventBytes = 0;
+        }
+    }
+
+    private ObjectMapper mapper;
+    private StoredSchedule schedule;
+    private byte[] scheduleBytes;
+    private AppointmentEvents.AppointmentCreated event;
+    private byte[] eventBytes;
+
+    @Setup
+    public void setup() throws Exception {
+        var sdkMapper = JsonSupport.getObjectMapper();
+        mapper = format.equals("legacy") ? sdkMapper.copy().setAnnotationIntrospector(NopAnnotationIntrospector.instance) : sdkMapper;
+
+        var schedule = new Schedule(new Schedule.ScheduleId(UUID.randomUUID().toString(), LocalDate.of(2031, 1, 1)),
+                new Schedule.WorkingHours(LocalTime.of(8, 0), LocalTime.of(18, 0)));
+        for (int i = 0; i < slots; i++)
+            schedule = schedule.scheduleAppointment(LocalTime.of(8, 0).plus(SLOT.multipliedBy(i)), SLOT, UUID.randomUUID().toString());
+        this.schedule = StoredSchedule.of(schedule);
+        event = new AppointmentEvents.AppointmentCreated(LocalDateTime.of(2031, 1, 1, 9, 45), UUID.randomUUID().toString(),
+                UUID.randomUUID().toString(), "headache");
+
+        scheduleBytes = mapper.writeValueAsBytes(schedule);
+        eventBytes = mapper.writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public byte[] encodeSchedule(EncodedSize size) throws Exception {
+        var bytes = mapper.writeValueAsBytes(schedule);
+        size.scheduleBytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public StoredSchedule decodeSchedule() throws Exception {
+        return mapper.readValue(scheduleBytes, StoredSchedule.class);
+    }
+
+    @Benchmark
+    public byte[] encodeEvent(EncodedSize size) throws Exception {
+        var bytes = mapper.writeValueAsBytes(event);
+        size.eventBytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public AppointmentEvents.AppointmentCreated decodeEvent() throws Exception {
+        return mapper.readValue(eventBytes, AppointmentEvents.AppointmentCreated.class);
+    }
+}
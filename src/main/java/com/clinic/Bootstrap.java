@@ -0,0 +1,50 @@
+package com.clinic;
+
+import akka.javasdk.DependencyProvider;
+import akka.javasdk.ServiceSetup;
+import akka.javasdk.annotations.Setup;
+import akka.javasdk.client.ComponentClient;
+import akka.javasdk.timer.TimerScheduler;
+import com.clinic.application.DoctorCache;
+import com.clinic.application.MissedAppointmentsSweeper;
+import com.clinic.application.StructuredLog;
+import com.typesafe.config.Config;
+
+import java.time.LocalTime;
+
+@Setup
+public class Bootstrap implements ServiceSetup {
+
+    private final ComponentClient componentClient;
+    private final TimerScheduler timerScheduler;
+    private final Config config;
+
+    public Bootstrap(ComponentClient componentClient, TimerScheduler timerScheduler, Config config) {
+        this.componentClient = componentClient;
+        this.timerScheduler = timerScheduler;
+        this.config = config;
+        StructuredLog.configure(config);
+    }
+
+    @Override
+    public void onStartup() {
+        // each run schedules the next one, this only makes sure the chain exists after a (re)deploy
+        var runAt = LocalTime.parse(config.getString("clinic.missed-sweep.run-at"));
+        var maxRetries = config.getInt("clinic.missed-sweep.max-retries");
+        MissedAppointmentsSweeper.scheduleSweep(timerScheduler, componentClient, MissedAppointmentsSweeper.nextSweptDate(runAt),
+                runAt, maxRetries);
+    }
+
+    @Override
+    public DependencyProvider createDependencyProvider() {
+        var doctorCache = new DoctorCache(componentClient, config);
+        return new DependencyProvider() {
+            @Override
+            public <T> T getDependency(Class<T> clazz) {
+                if (clazz == DoctorCache.class)
+                    return clazz.cast(doctorCache);
+                throw new IllegalArgumentException("Unknown dependency: " + clazz.getName());
+            }
+        };
+    }
+}
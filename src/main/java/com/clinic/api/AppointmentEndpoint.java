@@ -8,12 +8,20 @@ import akka.javasdk.annotations.http.Put;
 import akka.javasdk.client.ComponentClient;
 import akka.javasdk.http.AbstractHttpEndpoint;
 import akka.javasdk.http.HttpException;
+import akka.javasdk.timer.TimerScheduler;
 import com.clinic.application.AppointmentEntity;
+import com.clinic.application.MissedAppointmentsSweeper;
+import com.clinic.application.MissedSweepEntity;
 import com.clinic.application.ScheduleAppointmentWorkflow;
 import com.clinic.application.RescheduleAppointmentWorkflow;
 import com.clinic.domain.Appointment;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static com.clinic.api.common.Validation.parseDate;
@@ -24,9 +32,11 @@ import static com.clinic.api.common.Validation.parseTime;
 public class AppointmentEndpoint extends AbstractHttpEndpoint {
 
     private final ComponentClient componentClient;
+    private final TimerScheduler timerScheduler;
 
-    public AppointmentEndpoint(ComponentClient componentClient) {
+    public AppointmentEndpoint(ComponentClient componentClient, TimerScheduler timerScheduler) {
         this.componentClient = componentClient;
+        this.timerScheduler = timerScheduler;
     }
 
     public record CreateAppointmentRequest(String doctorId, String date, String startTime, String issue, String patientId) {
@@ -83,6 +93,21 @@ public class AppointmentEndpoint extends AbstractHttpEndpoint {
                 .invoke(body.prescription());
     }
 
+    public record RecordVisitRequest(String notes, List<String> prescriptions, boolean complete) {
+    }
+
+    @Put("{id}/visit")
+    public void recordVisit(String id, RecordVisitRequest body) {
+        var prescriptions = body.prescriptions() == null ? List.<String>of() : body.prescriptions();
+        if (prescriptions.stream().anyMatch(prescription -> prescription == null || prescription.isBlank()))
+            throw HttpException.badRequest("Prescriptions cannot be empty");
+
+        componentClient
+                .forEventSourcedEntity(id)
+                .method(AppointmentEntity::recordVisit)
+                .invoke(new AppointmentEntity.RecordVisitCmd(Optional.ofNullable(body.notes()), prescriptions, body.complete()));
+    }
+
     @Put("{id}/complete")
     public void complete(String id) {
         componentClient
@@ -107,6 +132,42 @@ public class AppointmentEndpoint extends AbstractHttpEndpoint {
                 .invoke();
     }
 
+    /**
+     * Sweeps a past day now instead of waiting for the nightly run. The sweep runs in the background.
+     */
+    @Post("missed-sweeps/{day}")
+    public void sweepMissed(String day) {
+        LocalDate date = parseDate(day);
+        if (!date.isBefore(LocalDate.now())) {
+            throw HttpException.badRequest("Only past days can be swept");
+        }
+        timerScheduler.createSingleTimer(
+                "missed-sweep-now-" + date,
+                Duration.ZERO,
+                componentClient.forTimedAction()
+                        .method(MissedAppointmentsSweeper::sweep)
+                        .deferred(date));
+    }
+
+    public record MissedSweepResponse(String date, int doctors, int checked, int marked, int failed,
+                                      List<String> failedDoctorIds, int failedRuns, boolean finished,
+                                      double appointmentsPerSecond, long lagSeconds) {
+    }
+
+    @Get("missed-sweeps/{day}")
+    public MissedSweepResponse getMissedSweep(String day) {
+        var sweep = componentClient
+                .forKeyValueEntity(parseDate(day).toString())
+                .method(MissedSweepEntity::getSweep)
+                .invoke()
+                .orElseThrow(HttpException::notFound);
+
+        return new MissedSweepResponse(sweep.date().toString(), sweep.sweptDoctorIds().size(), sweep.checked(),
+                sweep.marked(), sweep.failed(), sweep.failedDoctorIds(), sweep.failedRuns(), sweep.finishedAt().isPresent(),
+                sweep.throughput().orElse(0.0),
+                sweep.lag(ZoneId.systemDefault(), Instant.now()).toSeconds());
+    }
+
     @Get("{id}")
     public Appointment getAppointment(String id) {
         return componentClient
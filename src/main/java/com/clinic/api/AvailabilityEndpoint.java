@@ -0,0 +1,80 @@
+package com.clinic.api;
+
+import akka.javasdk.annotations.Acl;
+import akka.javasdk.annotations.http.Get;
+import akka.javasdk.annotations.http.HttpEndpoint;
+import akka.javasdk.client.ComponentClient;
+import akka.javasdk.http.AbstractHttpEndpoint;
+import akka.javasdk.http.HttpException;
+import com.clinic.api.common.Validation;
+import com.clinic.application.AvailabilityView;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+@HttpEndpoint("availability")
+@Acl(allow = @Acl.Matcher(principal = Acl.Principal.INTERNET))
+public class AvailabilityEndpoint extends AbstractHttpEndpoint {
+
+    private static final int DEFAULT_DURATION_MINUTES = 30;
+    private static final int DEFAULT_WINDOW_DAYS = 14;
+    private static final int DEFAULT_LIMIT = 50;
+    private static final int MAX_LIMIT = 200;
+    private static final int MAX_DOCTOR_IDS = 50;
+
+    private final ComponentClient componentClient;
+
+    public AvailabilityEndpoint(ComponentClient componentClient) {
+        this.componentClient = componentClient;
+    }
+
+    public record AvailableSlot(String doctorId, String date, String startTime, String endTime) {
+    }
+
+    /**
+     * Free gaps of at least {@code duration} minutes for all doctors of a speciality, or for the listed doctors,
+     * earliest first.
+     * Query parameters: speciality, or doctorIds (comma separated, at most 50), one of them required;
+     * from, to (ISO dates, default today + 14 days), duration (minutes, default 30),
+     * limit (doctor schedules to take the gaps from, default 50).
+     */
+    @Get
+    public List<AvailableSlot> findAvailability() {
+        var params = requestContext().queryParams();
+        var speciality = params.getString("speciality");
+        var doctorIds = params.getString("doctorIds")
+                .map(ids -> Arrays.stream(ids.split(",")).map(String::trim).filter(id -> !id.isEmpty()).distinct().toList());
+        if (speciality.isEmpty() && doctorIds.isEmpty())
+            throw HttpException.badRequest("Missing speciality or doctorIds");
+        if (doctorIds.isPresent() && (doctorIds.get().isEmpty() || doctorIds.get().size() > MAX_DOCTOR_IDS))
+            throw HttpException.badRequest("doctorIds must list between 1 and " + MAX_DOCTOR_IDS + " doctors");
+        var from = params.getString("from").map(Validation::parseDate).orElse(LocalDate.now());
+        var to = params.getString("to").map(Validation::parseDate).orElse(from.plusDays(DEFAULT_WINDOW_DAYS - 1));
+        var duration = params.getString("duration").map(Validation::parseMinutes).orElse(DEFAULT_DURATION_MINUTES);
+        var limit = params.getString("limit").map(size -> Validation.parsePageSize(size, MAX_LIMIT)).orElse(DEFAULT_LIMIT);
+        if (to.isBefore(from)) {
+            throw HttpException.badRequest("'to' must not be before 'from'");
+        }
+
+        List<? extends AvailabilityView.ScheduleGaps> schedules;
+        if (doctorIds.isPresent())
+            schedules = componentClient
+                    .forView()
+                    .method(AvailabilityView::findAvailability)
+                    .invoke(new AvailabilityView.FindAvailability(doctorIds.get(), from.toString(), to.toString(), duration, limit))
+                    .schedules();
+        else
+            schedules = componentClient
+                    .forView()
+                    .method(AvailabilityView::findCandidates)
+                    .invoke(AvailabilityView.FindCandidates.of(speciality.get(), from.toString(), to.toString(), duration, limit))
+                    .candidates();
+        return schedules.stream()
+                .flatMap(row -> row.gapsOfAtLeast(duration).stream()
+                        .map(gap -> new AvailableSlot(row.doctorId(), row.date(), gap.startTime(), gap.endTime())))
+                .sorted(Comparator.comparing(AvailableSlot::date).thenComparing(AvailableSlot::startTime))
+                .toList();
+    }
+}
@@ -1,5 +1,10 @@
 package com.clinic.api;
 
+import akka.http.javadsl.model.HttpHeader;
+import akka.http.javadsl.model.HttpResponse;
+import akka.http.javadsl.model.StatusCodes;
+import akka.http.javadsl.model.headers.ETag;
+import akka.http.javadsl.model.headers.EntityTag;
 import akka.javasdk.annotations.Acl;
 import akka.javasdk.annotations.http.Get;
 import akka.javasdk.annotations.http.HttpEndpoint;
@@ -7,23 +12,43 @@ import akka.javasdk.annotations.http.Post;
 import akka.javasdk.client.ComponentClient;
 import akka.javasdk.http.AbstractHttpEndpoint;
 import akka.javasdk.http.HttpException;
+import akka.javasdk.http.HttpResponses;
+import com.clinic.api.common.Validation;
+import com.clinic.application.AppointmentsByDoctorView;
+import com.clinic.application.DoctorCache;
 import com.clinic.application.DoctorEntity; // New import
 import com.clinic.application.DoctorsView; // New import
 import com.clinic.application.SchedulesByDoctorView;
+import com.clinic.domain.Appointment;
 import com.clinic.domain.Doctor; // New import
+import com.clinic.domain.Schedule;
 
+import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors; // New import
 
+import static com.clinic.api.common.Validation.parsePageSize;
+import static com.clinic.api.common.Validation.parseStatus;
+
 @HttpEndpoint("doctors")
 @Acl(allow = @Acl.Matcher(principal = Acl.Principal.INTERNET))
 public class DoctorEndpoint extends AbstractHttpEndpoint {
 
+    private static final int DEFAULT_SCHEDULE_DAYS = 28;
+    private static final int MAX_SCHEDULE_DAYS = 92;
+    private static final int DEFAULT_PAGE_SIZE = 31;
+    private static final int DEFAULT_DOCTORS_PAGE_SIZE = 50;
+    private static final int DEFAULT_AGENDA_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private ComponentClient componentClient;
+    private final DoctorCache doctorCache;
 
-    public DoctorEndpoint(ComponentClient componentClient) {
+    public DoctorEndpoint(ComponentClient componentClient, DoctorCache doctorCache) {
         this.componentClient = componentClient;
+        this.doctorCache = doctorCache;
     }
 
     public record CreateDoctorRequest(
@@ -63,38 +88,59 @@ public class DoctorEndpoint extends AbstractHttpEndpoint {
     public record DoctorSummary(String id, String name, List<String> specialities) {
     }
 
+    public record DoctorPage(List<DoctorSummary> doctors, String nextPageToken, boolean hasMore) {
+    }
+
+    /**
+     * Doctors ordered by name, {@code pageSize} at a time. The last change in the directory view is sent as ETag, it
+     * is read from the same view before the page, so a request with a matching {@code If-None-Match} gets a 304 without
+     * querying the page.
+     */
     @Get
-    public List<DoctorSummary> getDoctors() {
-        List<DoctorsView.DoctorRow> rows = componentClient
+    public HttpResponse getDoctors() {
+        var queryParams = requestContext().queryParams();
+        var pageSize = queryParams.getString("pageSize").map(size -> parsePageSize(size, MAX_PAGE_SIZE)).orElse(DEFAULT_DOCTORS_PAGE_SIZE);
+        var pageToken = queryParams.getString("pageToken").orElse("");
+
+        var version = componentClient
                 .forView()
-                .method(DoctorsView::getAllDoctors)
+                .method(DoctorsView::getDirectoryVersion)
                 .invoke()
-                .doctors();
+                .map(last -> last.updatedAt() + "/" + last.id())
+                .orElse("empty");
+        var etag = ETag.create(EntityTag.create(version, false));
+        var notModified = requestContext()
+                .requestHeader("If-None-Match")
+                .map(HttpHeader::value)
+                .filter(value -> matches(value, etag.etag()))
+                .isPresent();
+        if (notModified)
+            return HttpResponse.create().withStatus(StatusCodes.NOT_MODIFIED).addHeader(etag);
+
+        var page = componentClient
+                .forView()
+                .method(DoctorsView::getDoctorsPage)
+                .invoke(new DoctorsView.FindDoctorsPage(pageToken, pageSize));
+        var doctors = page.doctors().stream()
+                .map(row -> new DoctorSummary(row.id(), row.name(), row.specialities()))
+                .toList();
 
-        return rows.stream()
-                .map(row -> new DoctorSummary(
-                        row.id(),
-                        row.firstName() + " " + row.lastName(),
-                        row.specialities()
-                ))
-                .collect(Collectors.toList());
+        return HttpResponses.ok(new DoctorPage(doctors, page.nextPageToken(), page.hasMore())).addHeader(etag);
+    }
+
+    private static boolean matches(String ifNoneMatch, EntityTag etag) {
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .anyMatch(tag -> tag.equals("*") || tag.replaceFirst("^W/", "").equals("\"" + etag.tag() + "\""));
     }
 
     @Get("speciality/{speciality}")
     public List<DoctorSummary> getDoctorsBySpeciality(String speciality) {
 
-        List<DoctorsView.DoctorRow> rows = componentClient
-                .forView()
-                .method(DoctorsView::findBySpeciality)
-                .invoke(new DoctorsView.FindBySpecialityQuery(speciality)) // Pass the new record
-                .doctors();
+        List<DoctorsView.SpecialityRow> rows = doctorCache.findBySpeciality(speciality);
 
         return rows.stream()
-                .map(row -> new DoctorSummary(
-                        row.id(),
-                        row.firstName() + " " + row.lastName(),
-                        row.specialities()
-                ))
+                .map(row -> new DoctorSummary(row.id(), row.name(), row.specialities()))
                 .collect(Collectors.toList());
     }
 
@@ -111,11 +157,7 @@ public class DoctorEndpoint extends AbstractHttpEndpoint {
 
     @Get("{id}")
     public DoctorDetails getDoctor(String id) {
-        Doctor doctor = componentClient
-                .forKeyValueEntity(id)
-                .method(DoctorEntity::getDoctor)
-                .invoke()
-                .orElseThrow(HttpException::notFound);
+        Doctor doctor = doctorCache.getDoctor(id).orElseThrow(HttpException::notFound);
 
         return new DoctorDetails(
                 doctor.id(),
@@ -127,8 +169,78 @@ public class DoctorEndpoint extends AbstractHttpEndpoint {
         );
     }
 
+    /**
+     * Schedules from {@code from} (default today) to {@code to} (default four weeks later), both inclusive.
+     * Only active and blocked schedules unless {@code status} is given.
+     */
     @Get("{doctorId}/schedules")
-    public List<SchedulesByDoctorView.ScheduleSummary> getSchedulesByDoctor(String doctorId) {
-        return componentClient.forView().method(SchedulesByDoctorView::getSummaries).invoke(new SchedulesByDoctorView.FindScheduleSummary(doctorId, "2025-10-20", "2025-10-30")).schedules();
+    public SchedulesByDoctorView.ScheduleSummaryPage getSchedulesByDoctor(String doctorId) {
+        return componentClient
+                .forView()
+                .method(SchedulesByDoctorView::getSummaries)
+                .invoke(findSchedules(doctorId));
+    }
+
+    /**
+     * Same as {@link #getSchedulesByDoctor(String)}, with the booked slots of each schedule.
+     */
+    @Get("{doctorId}/schedules/slots")
+    public SchedulesByDoctorView.ScheduleRows getScheduleSlotsByDoctor(String doctorId) {
+        return componentClient
+                .forView()
+                .method(SchedulesByDoctorView::getSchedules)
+                .invoke(findSchedules(doctorId));
+    }
+
+    private SchedulesByDoctorView.FindSchedules findSchedules(String doctorId) {
+        var queryParams = requestContext().queryParams();
+        LocalDate from = queryParams.getString("from").map(Validation::parseDate).orElse(LocalDate.now());
+        LocalDate to = queryParams.getString("to").map(Validation::parseDate).orElse(from.plusDays(DEFAULT_SCHEDULE_DAYS - 1));
+        if (to.isBefore(from))
+            throw HttpException.badRequest("To date must not be before from date");
+        if (to.isAfter(from.plusDays(MAX_SCHEDULE_DAYS - 1)))
+            throw HttpException.badRequest("Date range cannot be longer than " + MAX_SCHEDULE_DAYS + " days");
+        List<Schedule.Status> statuses = queryParams.getString("status")
+                .map(status -> List.of(parseScheduleStatus(status)))
+                .orElse(List.of(Schedule.Status.ACTIVE, Schedule.Status.BLOCKED));
+        var pageSize = queryParams.getString("pageSize").map(size -> parsePageSize(size, MAX_PAGE_SIZE)).orElse(DEFAULT_PAGE_SIZE);
+        var pageToken = queryParams.getString("pageToken").orElse("");
+
+        return new SchedulesByDoctorView.FindSchedules(doctorId, from.toString(), to.toString(), statuses, pageToken, pageSize);
+    }
+
+    private static Schedule.Status parseScheduleStatus(String status) {
+        try {
+            return Schedule.Status.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw HttpException.badRequest("Invalid status");
+        }
+    }
+
+    /**
+     * The doctor's appointments from {@code from} to {@code to} (inclusive days, both default to today),
+     * optionally only those with the given {@code status}. Pass {@code pageToken} from the previous response to fetch
+     * later ones.
+     */
+    @Get("{doctorId}/appointments")
+    public AppointmentsByDoctorView.AgendaPage getAgenda(String doctorId) {
+        var queryParams = requestContext().queryParams();
+        var pageSize = queryParams.getString("pageSize").map(size -> parsePageSize(size, MAX_PAGE_SIZE)).orElse(DEFAULT_AGENDA_PAGE_SIZE);
+        var pageToken = queryParams.getString("pageToken").orElse("");
+        LocalDate from = queryParams.getString("from").map(Validation::parseDate).orElse(LocalDate.now());
+        LocalDate to = queryParams.getString("to").map(Validation::parseDate).orElse(from);
+        if (to.isBefore(from))
+            throw HttpException.badRequest("To date must not be before from date");
+        List<Appointment.Status> statuses = queryParams.getString("status")
+                .map(status -> List.of(parseStatus(status)))
+                .orElse(Arrays.asList(Appointment.Status.values()));
+
+        return componentClient
+                .forView()
+                .method(AppointmentsByDoctorView::findAgenda)
+                .invoke(new AppointmentsByDoctorView.FindAgenda(doctorId,
+                        Appointment.toInstant(from.atStartOfDay()),
+                        Appointment.toInstant(to.plusDays(1).atStartOfDay()),
+                        statuses, pageToken, pageSize));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,41 @@
+package com.clinic.api;
+
+import akka.javasdk.annotations.Acl;
+import akka.javasdk.annotations.http.Get;
+import akka.javasdk.annotations.http.HttpEndpoint;
+import akka.javasdk.http.AbstractHttpEndpoint;
+import com.clinic.application.DoctorCache;
+import com.clinic.application.ProjectionMetrics;
+
+import java.util.List;
+
+// operational data, only for other services of the project and local tooling
+@HttpEndpoint("metrics")
+@Acl(allow = {
+        @Acl.Matcher(service = "*"),
+        @Acl.Matcher(principal = Acl.Principal.LOCALHOST)
+})
+public class MetricsEndpoint extends AbstractHttpEndpoint {
+
+    private final DoctorCache doctorCache;
+
+    public MetricsEndpoint(DoctorCache doctorCache) {
+        this.doctorCache = doctorCache;
+    }
+
+    /**
+     * Update counts and lag of the view tables updated on the node serving the request.
+     */
+    @Get("projections")
+    public List<ProjectionMetrics.TableSnapshot> getProjectionMetrics() {
+        return ProjectionMetrics.snapshot();
+    }
+
+    /**
+     * Hits, misses and evictions of the doctor cache of the node serving the request.
+     */
+    @Get("doctor-cache")
+    public DoctorCache.Stats getDoctorCacheStats() {
+        return doctorCache.stats();
+    }
+}
@@ -1,30 +1,113 @@
 package com.clinic.api;
 
+import akka.http.javadsl.model.HttpResponse;
 import akka.javasdk.annotations.Acl;
 import akka.javasdk.annotations.http.Get;
 import akka.javasdk.annotations.http.HttpEndpoint;
 import akka.javasdk.client.ComponentClient;
 import akka.javasdk.http.AbstractHttpEndpoint;
+import akka.javasdk.http.HttpException;
+import akka.javasdk.http.HttpResponses;
 import com.clinic.application.AppointmentsByPatientView;
+import com.clinic.domain.Appointment;
 
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
 
+import static com.clinic.api.common.Validation.parseDate;
+import static com.clinic.api.common.Validation.parsePageSize;
+import static com.clinic.api.common.Validation.parseStatus;
+
 @HttpEndpoint("patients")
 @Acl(allow = @Acl.Matcher(principal = Acl.Principal.INTERNET))
 public class PatientEndpoint extends AbstractHttpEndpoint {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int DEFAULT_UPCOMING = 3;
+
     private ComponentClient componentClient;
 
     public PatientEndpoint(ComponentClient componentClient) {
         this.componentClient = componentClient;
     }
 
+    /**
+     * Most recent appointments first. Pass {@code pageToken} from the previous response to fetch older ones.
+     */
     @Get("{patientId}/appointments")
-    public List<AppointmentsByPatientView.AppointmentRow> findAppointments(String patientId) {
+    public AppointmentsByPatientView.AppointmentPage findAppointments(String patientId) {
+        var queryParams = requestContext().queryParams();
+        var pageSize = queryParams.getString("pageSize").map(size -> parsePageSize(size, MAX_PAGE_SIZE)).orElse(DEFAULT_PAGE_SIZE);
+        var pageToken = queryParams.getString("pageToken").orElse("");
+
+        return componentClient
+                .forView()
+                .method(AppointmentsByPatientView::findPageByPatient)
+                .invoke(new AppointmentsByPatientView.FindByPatientPage(patientId, pageToken, pageSize));
+    }
+
+    /**
+     * The whole history as server-sent events, one appointment per event, most recent first.
+     */
+    @Get("{patientId}/appointments/stream")
+    public HttpResponse streamAppointments(String patientId) {
+        var appointments = componentClient
+                .forView()
+                .stream(AppointmentsByPatientView::streamByPatient)
+                .source(patientId);
+        return HttpResponses.serverSentEvents(appointments);
+    }
+
+    /**
+     * The next pending or scheduled appointments, soonest first. {@code limit} defaults to 3.
+     */
+    @Get("{patientId}/appointments/upcoming")
+    public List<AppointmentsByPatientView.AppointmentRow> findUpcomingAppointments(String patientId) {
+        var limit = requestContext().queryParams().getString("limit").map(size -> parsePageSize(size, MAX_PAGE_SIZE)).orElse(DEFAULT_UPCOMING);
+
+        return componentClient
+                .forView()
+                .method(AppointmentsByPatientView::findUpcoming)
+                .invoke(new AppointmentsByPatientView.FindUpcoming(patientId, Instant.now(),
+                        List.of(Appointment.Status.PENDING, Appointment.Status.SCHEDULED), limit))
+                .appointments();
+    }
+
+    /**
+     * Appointments from {@code from} to {@code to}, both inclusive days, in time order.
+     */
+    @Get("{patientId}/appointments/range")
+    public List<AppointmentsByPatientView.AppointmentRow> findAppointmentsInRange(String patientId) {
+        var queryParams = requestContext().queryParams();
+        LocalDate from = parseDate(queryParams.getString("from").orElseThrow(() -> HttpException.badRequest("Missing from date")));
+        LocalDate to = parseDate(queryParams.getString("to").orElseThrow(() -> HttpException.badRequest("Missing to date")));
+        if (to.isBefore(from))
+            throw HttpException.badRequest("To date must not be before from date");
+        var limit = queryParams.getString("limit").map(size -> parsePageSize(size, MAX_PAGE_SIZE)).orElse(MAX_PAGE_SIZE);
+
+        return componentClient
+                .forView()
+                .method(AppointmentsByPatientView::findInRange)
+                .invoke(new AppointmentsByPatientView.FindInRange(patientId,
+                        Appointment.toInstant(from.atStartOfDay()),
+                        Appointment.toInstant(to.plusDays(1).atStartOfDay()),
+                        limit))
+                .appointments();
+    }
+
+    /**
+     * The most recent appointments with the given status.
+     */
+    @Get("{patientId}/appointments/status/{status}")
+    public List<AppointmentsByPatientView.AppointmentRow> findAppointmentsByStatus(String patientId, String status) {
+        var limit = requestContext().queryParams().getString("limit").map(size -> parsePageSize(size, MAX_PAGE_SIZE)).orElse(DEFAULT_PAGE_SIZE);
+
         return componentClient
                 .forView()
-                .method(AppointmentsByPatientView::findByPatient)
-                .invoke(patientId)
+                .method(AppointmentsByPatientView::findByStatus)
+                .invoke(new AppointmentsByPatientView.FindByStatus(patientId, parseStatus(status), limit))
                 .appointments();
     }
 }
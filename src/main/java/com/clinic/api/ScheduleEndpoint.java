@@ -3,6 +3,7 @@ package com.clinic.api;
 import akka.http.javadsl.model.HttpHeader;
 import akka.javasdk.annotations.Acl;
 import akka.javasdk.annotations.http.Delete;
+import akka.javasdk.annotations.http.Get;
 import akka.javasdk.annotations.http.HttpEndpoint;
 import akka.javasdk.annotations.http.Put;
 import akka.javasdk.client.ComponentClient;
@@ -11,6 +12,7 @@ import akka.javasdk.http.HttpException;
 import com.clinic.application.DeleteScheduleWorkflow;
 import com.clinic.application.ScheduleEntity;
 import com.clinic.application.SchedulesByDoctorView;
+import com.clinic.domain.EntityKeys;
 import com.clinic.domain.Schedule;
 
 import java.time.LocalDate;
@@ -67,11 +69,28 @@ public class ScheduleEndpoint extends AbstractHttpEndpoint {
                 .orElseThrow(() -> HttpException.badRequest("Missing doctorId header"));
         LocalDate date = parseDate(day);
 
-        var workflowId = "delete-schedule-" + doctorId + "-" + day;
+        var workflowId = EntityKeys.deleteScheduleWorkflowId(doctorId, date);
 
         componentClient
                 .forWorkflow(workflowId)
                 .method(DeleteScheduleWorkflow::start)
                 .invoke(new DeleteScheduleWorkflow.DeleteScheduleCommand(doctorId, date));
     }
-}
\ No newline at end of file
+
+    /**
+     * Progress of a schedule deletion, with the outcome of each processed appointment.
+     */
+    @Get("{day}/deletion")
+    public DeleteScheduleWorkflow.DeleteScheduleState getDeletion(String day) {
+        var doctorId = requestContext()
+                .requestHeader(DOCTOR_ID_HEADER)
+                .map(HttpHeader::value)
+                .orElseThrow(() -> HttpException.badRequest("Missing doctorId header"));
+        LocalDate date = parseDate(day);
+
+        return componentClient
+                .forWorkflow(EntityKeys.deleteScheduleWorkflowId(doctorId, date))
+                .method(DeleteScheduleWorkflow::getDeletion)
+                .invoke();
+    }
+}
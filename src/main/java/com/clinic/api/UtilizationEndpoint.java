@@ -0,0 +1,85 @@
+package com.clinic.api;
+
+import akka.javasdk.annotations.Acl;
+import akka.javasdk.annotations.http.Get;
+import akka.javasdk.annotations.http.HttpEndpoint;
+import akka.javasdk.client.ComponentClient;
+import akka.javasdk.http.AbstractHttpEndpoint;
+import akka.javasdk.http.HttpException;
+import com.clinic.api.common.Validation;
+import com.clinic.application.UtilizationEntity;
+import com.clinic.application.UtilizationView;
+import com.clinic.domain.Doctor;
+import com.clinic.domain.EntityKeys;
+import com.clinic.domain.Utilization;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+@HttpEndpoint("utilization")
+@Acl(allow = @Acl.Matcher(principal = Acl.Principal.INTERNET))
+public class UtilizationEndpoint extends AbstractHttpEndpoint {
+
+    private static final Pattern ISO_WEEK = Pattern.compile("\\d{4}-W\\d{2}");
+    private static final int MAX_DAYS = 92;
+
+    private final ComponentClient componentClient;
+
+    public UtilizationEndpoint(ComponentClient componentClient) {
+        this.componentClient = componentClient;
+    }
+
+    public record WeekUtilization(String week, int bookedMinutes, int workingMinutes, int slots, Optional<Double> rate) {
+    }
+
+    /**
+     * @param week an ISO week such as {@code 2031-W02}, or any date in it
+     */
+    @Get("doctors/{doctorId}/weeks/{week}")
+    public WeekUtilization getDoctorWeek(String doctorId, String week) {
+        var isoWeek = parseWeek(week);
+        return weekUtilization(isoWeek, EntityKeys.doctorUtilizationId(doctorId, isoWeek));
+    }
+
+    @Get("specialities/{speciality}/weeks/{week}")
+    public WeekUtilization getSpecialityWeek(String speciality, String week) {
+        var isoWeek = parseWeek(week);
+        return weekUtilization(isoWeek, EntityKeys.specialityUtilizationId(Doctor.specialityKey(speciality), isoWeek));
+    }
+
+    /**
+     * Daily totals from {@code from} (default today) to {@code to} (default six days later), both inclusive.
+     */
+    @Get("doctors/{doctorId}/days")
+    public List<UtilizationView.DayRow> getDoctorDays(String doctorId) {
+        var queryParams = requestContext().queryParams();
+        LocalDate from = queryParams.getString("from").map(Validation::parseDate).orElse(LocalDate.now());
+        LocalDate to = queryParams.getString("to").map(Validation::parseDate).orElse(from.plusDays(6));
+        if (to.isBefore(from))
+            throw HttpException.badRequest("To date must not be before from date");
+        if (to.isAfter(from.plusDays(MAX_DAYS - 1)))
+            throw HttpException.badRequest("Date range cannot be longer than " + MAX_DAYS + " days");
+
+        return componentClient
+                .forView()
+                .method(UtilizationView::findDays)
+                .invoke(new UtilizationView.FindDays(doctorId, from.toString(), to.toString()))
+                .days();
+    }
+
+    private WeekUtilization weekUtilization(String week, String utilizationId) {
+        var total = componentClient
+                .forKeyValueEntity(utilizationId)
+                .method(UtilizationEntity::getTotal)
+                .invoke();
+        return new WeekUtilization(week, total.bookedMinutes(), total.workingMinutes(), total.slots(), total.rate());
+    }
+
+    private static String parseWeek(String week) {
+        if (ISO_WEEK.matcher(week).matches())
+            return week;
+        return Utilization.weekOf(Validation.parseDate(week));
+    }
+}
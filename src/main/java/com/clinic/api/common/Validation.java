@@ -1,6 +1,7 @@
 package com.clinic.api.common;
 
 import akka.javasdk.http.HttpException;
+import com.clinic.domain.Appointment;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -14,6 +15,36 @@ public class Validation {
         }
     }
 
+    public static int parseMinutes(String minutes) {
+        try {
+            var value = Integer.parseInt(minutes);
+            if (value <= 0)
+                throw HttpException.badRequest("Duration must be positive");
+            return value;
+        } catch (NumberFormatException e) {
+            throw HttpException.badRequest("Invalid duration format");
+        }
+    }
+
+    public static int parsePageSize(String pageSize, int max) {
+        try {
+            var value = Integer.parseInt(pageSize);
+            if (value <= 0 || value > max)
+                throw HttpException.badRequest("Page size must be between 1 and " + max);
+            return value;
+        } catch (NumberFormatException e) {
+            throw HttpException.badRequest("Invalid page size format");
+        }
+    }
+
+    public static Appointment.Status parseStatus(String status) {
+        try {
+            return Appointment.Status.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw HttpException.badRequest("Invalid status");
+        }
+    }
+
     public static LocalTime parseTime(String time) {
         try {
             return LocalTime.parse(time);
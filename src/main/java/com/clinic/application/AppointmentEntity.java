@@ -8,11 +8,15 @@ import com.clinic.domain.Appointment;
 import com.clinic.domain.AppointmentEvents;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 @Component(id = "appointment")
 public class AppointmentEntity extends EventSourcedEntity<Appointment, AppointmentEvents> {
 
+    private static final StructuredLog log = StructuredLog.of(AppointmentEntity.class);
+
     private String entityId;
 
     public AppointmentEntity(EventSourcedEntityContext context) {
@@ -76,6 +80,31 @@ public class AppointmentEntity extends EventSourcedEntity<Appointment, Appointme
                 .thenReply(__ -> Done.getInstance());
     }
 
+    public record RecordVisitCmd(Optional<String> notes, List<String> prescriptions, boolean complete) {
+    }
+
+    /**
+     * Records the outcome of a visit as one batch of events: notes, prescriptions and, optionally, completion.
+     */
+    public Effect<Done> recordVisit(RecordVisitCmd cmd) {
+        if (currentState() == null)
+            return effects().error("Appointment doesn't exist");
+        if (cmd.complete() && currentState().status() != Appointment.Status.SCHEDULED)
+            return effects().error("Cannot complete an appointment that is not scheduled");
+
+        var events = new ArrayList<AppointmentEvents>(cmd.prescriptions().size() + 2);
+        cmd.notes().ifPresent(notes -> events.add(new AppointmentEvents.AddedDoctorNotes(notes)));
+        cmd.prescriptions().forEach(prescription -> events.add(new AppointmentEvents.AddedPrescription(prescription)));
+        if (cmd.complete())
+            events.add(new AppointmentEvents.Completed());
+
+        if (events.isEmpty())
+            return effects().reply(Done.getInstance());
+        return effects()
+                .persistAll(events)
+                .thenReply(__ -> Done.getInstance());
+    }
+
     public Effect<Done> cancel() {
         if (currentState() == null)
             return effects().error("Appointment doesn't exist");
@@ -97,26 +126,12 @@ public class AppointmentEntity extends EventSourcedEntity<Appointment, Appointme
     }
 
     // currentState() -> apply event -> return newState()
+    // the SDK keeps the state returned for every event, so this can't fold into an Appointment.Builder
     @Override
     public Appointment applyEvent(AppointmentEvents event) {
-        System.out.println("Applying event: " + event);
-        switch (event) {
-            case AppointmentEvents.AppointmentCreated e: // currentState() is null
-                return new Appointment(entityId, e.dateTime(), e.doctorId(), e.patientId(), e.issue());
-            case AppointmentEvents.AddedDoctorNotes e:
-                return currentState().addNotes(e.notes());
-            case AppointmentEvents.AddedPrescription e:
-                return currentState().addPrescription(e.prescription());
-            case AppointmentEvents.Scheduled e:
-                return currentState().markAsScheduled();
-            case AppointmentEvents.Completed e:
-                return currentState().complete();
-            case AppointmentEvents.Cancelled e:
-                return currentState().cancel();
-            case AppointmentEvents.Missed e:
-                return currentState().markAsMissed();
-            case AppointmentEvents.Rescheduled e:
-                return currentState().reschedule(e.dateTime(), e.doctorId());
-        }
+        log.debug().addKeyValue("entityId", entityId).addKeyValue("event", event).log("Applying event");
+        if (event instanceof AppointmentEvents.AppointmentCreated e) // currentState() is null
+            return new Appointment(entityId, e.dateTime(), e.doctorId(), e.patientId(), e.issue());
+        return currentState().onEvent(event);
     }
 }
@@ -0,0 +1,77 @@
+package com.clinic.application;
+
+import akka.javasdk.annotations.Component;
+import akka.javasdk.annotations.Consume;
+import akka.javasdk.annotations.Query;
+import akka.javasdk.annotations.Table;
+import akka.javasdk.view.TableUpdater;
+import akka.javasdk.view.View;
+import com.clinic.domain.Appointment;
+import com.clinic.domain.AppointmentEvents;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A doctor's agenda: one row per appointment, following it when it is rescheduled to another doctor or day.
+ */
+@Component(id = "appointments-by-doctor")
+public class AppointmentsByDoctorView extends View {
+
+    public record AgendaRow(String appointmentId, String doctorId, String patientId, String issue, String date,
+                            String time, Instant dateTime, Appointment.Status status) {
+        public AgendaRow withStatus(Appointment.Status status) {
+            return new AgendaRow(appointmentId, doctorId, patientId, issue, date, time, dateTime, status);
+        }
+
+        public AgendaRow rescheduled(LocalDateTime dateTime, String doctorId) {
+            return new AgendaRow(appointmentId, doctorId, patientId, issue, dateTime.toLocalDate().toString(),
+                    dateTime.toLocalTime().toString(), Appointment.toInstant(dateTime), status);
+        }
+    }
+
+    @Table("agenda")
+    @Consume.FromEventSourcedEntity(AppointmentEntity.class)
+    public static class Updater extends TableUpdater<AgendaRow> {
+        public Effect<AgendaRow> onEvent(AppointmentEvents event) {
+            ProjectionMetrics.record(getClass(), event, updateContext());
+            return switch (event) {
+                case AppointmentEvents.AppointmentCreated e -> {
+                    var appointmentId = updateContext().eventSubject().orElseThrow();
+                    var row = new AgendaRow(appointmentId, e.doctorId(), e.patientId(), e.issue(),
+                            e.dateTime().toLocalDate().toString(), e.dateTime().toLocalTime().toString(),
+                            Appointment.toInstant(e.dateTime()), Appointment.Status.PENDING);
+                    yield effects().updateRow(row);
+                }
+                case AppointmentEvents.AddedDoctorNotes e -> effects().ignore();
+                case AppointmentEvents.AddedPrescription e -> effects().ignore();
+                case AppointmentEvents.Scheduled e -> effects().updateRow(rowState().withStatus(Appointment.Status.SCHEDULED));
+                case AppointmentEvents.Completed e -> effects().updateRow(rowState().withStatus(Appointment.Status.COMPLETED));
+                case AppointmentEvents.Cancelled e -> effects().updateRow(rowState().withStatus(Appointment.Status.CANCELLED));
+                case AppointmentEvents.Missed e -> effects().updateRow(rowState().withStatus(Appointment.Status.MISSED));
+                case AppointmentEvents.Rescheduled e -> effects().updateRow(rowState().rescheduled(e.dateTime(), e.doctorId()));
+            };
+        }
+    }
+
+    public record AgendaPage(List<AgendaRow> appointments, String nextPageToken, boolean hasMore) {}
+
+    /**
+     * @param to exclusive
+     * @param pageToken empty for the first page, then the {@code nextPageToken} of the previous page
+     */
+    public record FindAgenda(String doctorId, Instant from, Instant to, List<Appointment.Status> statuses,
+                             String pageToken, int pageSize) {}
+
+    @Query("""
+            SELECT * AS appointments, next_page_token() AS nextPageToken, has_more() AS hasMore
+            FROM agenda
+            WHERE doctorId = :doctorId AND dateTime >= :from AND dateTime < :to AND status = ANY(:statuses)
+            ORDER BY dateTime
+            OFFSET page_token_offset(:pageToken) LIMIT :pageSize
+            """)
+    public QueryEffect<AgendaPage> findAgenda(FindAgenda query) {
+        return queryResult();
+    }
+}
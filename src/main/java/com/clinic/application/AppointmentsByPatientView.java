@@ -8,31 +8,45 @@ import akka.javasdk.view.View;
 import com.clinic.domain.Appointment;
 import com.clinic.domain.AppointmentEvents;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.List;
 
-@Component(id = "applications-by-patient")
+// rows carry a typed dateTime column, the id changed so the view is rebuilt with it
+@Component(id = "appointments-by-patient")
 public class AppointmentsByPatientView extends View {
+
+    /**
+     * @param dateTime the appointment start as an instant in the service's time zone, for range queries and sorting
+     */
     public record AppointmentRow(String patientId, String doctorId, String issue, String date, String time,
-                                 Appointment.Status status) {
+                                 Instant dateTime, Appointment.Status status) {
+        public static AppointmentRow of(String patientId, String doctorId, String issue, LocalDateTime dateTime) {
+            return new AppointmentRow(patientId, doctorId, issue, dateTime.toLocalDate().toString(),
+                    dateTime.toLocalTime().toString(), Appointment.toInstant(dateTime), Appointment.Status.PENDING);
+        }
+
         public AppointmentRow withStatus(Appointment.Status status) {
-            return new AppointmentRow(patientId, doctorId, issue, date, time, status);
+            return new AppointmentRow(patientId, doctorId, issue, date, time, dateTime, status);
         }
 
-        public AppointmentRow withDate(String date, String time) {
-            return new AppointmentRow(patientId, doctorId, issue, date, time, status);
+        public AppointmentRow withDateTime(LocalDateTime dateTime) {
+            return new AppointmentRow(patientId, doctorId, issue, dateTime.toLocalDate().toString(),
+                    dateTime.toLocalTime().toString(), Appointment.toInstant(dateTime), status);
         }
 
         public AppointmentRow withDoctorId(String doctorId) {
-            return new AppointmentRow(patientId, doctorId, issue, date, time, status);
+            return new AppointmentRow(patientId, doctorId, issue, date, time, dateTime, status);
         }
     }
 
     @Consume.FromEventSourcedEntity(AppointmentEntity.class)
     public static class Updater extends TableUpdater<AppointmentRow> {
         public Effect<AppointmentRow> onEvent(AppointmentEvents event) {
+            ProjectionMetrics.record(getClass(), event, updateContext());
             return switch (event) {
                 case AppointmentEvents.AppointmentCreated e -> {
-                    var row = new AppointmentRow(e.patientId(), e.doctorId(), e.issue(), e.dateTime().toLocalDate().toString(), e.dateTime().toLocalTime().toString(), Appointment.Status.PENDING);
+                    var row = AppointmentRow.of(e.patientId(), e.doctorId(), e.issue(), e.dateTime());
                     yield effects().updateRow(row);
                 }
                 case AppointmentEvents.AddedDoctorNotes e -> effects().ignore();
@@ -55,7 +69,7 @@ public class AppointmentsByPatientView extends View {
                 }
                 case AppointmentEvents.Rescheduled e -> {
                     var newRow = rowState()
-                            .withDate(e.dateTime().toLocalDate().toString(), e.dateTime().toLocalTime().toString())
+                            .withDateTime(e.dateTime())
                             .withDoctorId(e.doctorId());
                     yield effects().updateRow(newRow);
                 }
@@ -65,9 +79,65 @@ public class AppointmentsByPatientView extends View {
 
     public record AppointmentRows(List<AppointmentRow> appointments){}
 
-    @Query("SELECT * AS appointments FROM appointments WHERE patientId = :patientId")
-    public QueryEffect<AppointmentRows> findByPatient(String patientId) {
+    /**
+     * @param pageToken empty for the first page, then the {@code nextPageToken} of the previous page
+     */
+    public record FindByPatientPage(String patientId, String pageToken, int pageSize) {}
+
+    public record AppointmentPage(List<AppointmentRow> appointments, String nextPageToken, boolean hasMore) {}
+
+    @Query("""
+            SELECT * AS appointments, next_page_token() AS nextPageToken, has_more() AS hasMore
+            FROM appointments
+            WHERE patientId = :patientId
+            ORDER BY dateTime DESC
+            OFFSET page_token_offset(:pageToken) LIMIT :pageSize
+            """)
+    public QueryEffect<AppointmentPage> findPageByPatient(FindByPatientPage query) {
+        return queryResult();
+    }
+
+    @Query("SELECT * FROM appointments WHERE patientId = :patientId ORDER BY dateTime DESC")
+    public QueryStreamEffect<AppointmentRow> streamByPatient(String patientId) {
+        return queryStreamResult();
+    }
+
+    public record FindUpcoming(String patientId, Instant from, List<Appointment.Status> statuses, int limit) {}
+
+    @Query("""
+            SELECT * AS appointments FROM appointments
+            WHERE patientId = :patientId AND dateTime >= :from AND status = ANY(:statuses)
+            ORDER BY dateTime
+            LIMIT :limit
+            """)
+    public QueryEffect<AppointmentRows> findUpcoming(FindUpcoming query) {
         return queryResult();
     }
 
-}
\ No newline at end of file
+    /**
+     * @param to exclusive
+     */
+    public record FindInRange(String patientId, Instant from, Instant to, int limit) {}
+
+    @Query("""
+            SELECT * AS appointments FROM appointments
+            WHERE patientId = :patientId AND dateTime >= :from AND dateTime < :to
+            ORDER BY dateTime
+            LIMIT :limit
+            """)
+    public QueryEffect<AppointmentRows> findInRange(FindInRange query) {
+        return queryResult();
+    }
+
+    public record FindByStatus(String patientId, Appointment.Status status, int limit) {}
+
+    @Query("""
+            SELECT * AS appointments FROM appointments
+            WHERE patientId = :patientId AND status = :status
+            ORDER BY dateTime DESC
+            LIMIT :limit
+            """)
+    public QueryEffect<AppointmentRows> findByStatus(FindByStatus query) {
+        return queryResult();
+    }
+}
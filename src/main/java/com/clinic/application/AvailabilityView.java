@@ -0,0 +1,140 @@
+package com.clinic.application;
+
+import akka.javasdk.annotations.Component;
+import akka.javasdk.annotations.Consume;
+import akka.javasdk.annotations.Query;
+import akka.javasdk.annotations.Table;
+import akka.javasdk.view.TableUpdater;
+import akka.javasdk.view.View;
+import com.clinic.domain.Doctor;
+import com.clinic.domain.Schedule;
+import com.clinic.domain.StoredSchedule;
+
+import java.util.List;
+
+// joins doctors with their schedules, the id changed when the doctors table and schedule totals were added
+@Component(id = "doctor-availability")
+public class AvailabilityView extends View {
+
+    /**
+     * The free gaps of one doctor's schedule, as returned by the queries.
+     */
+    public interface ScheduleGaps {
+        String doctorId();
+
+        String date();
+
+        List<AvailabilityRow.Gap> gaps();
+
+        default List<AvailabilityRow.Gap> gapsOfAtLeast(int minutes) {
+            return gaps().stream().filter(gap -> gap.minutes() >= minutes).toList();
+        }
+    }
+
+    public record AvailabilityRow(String doctorId, String date, String startTime, String endTime, int bookedMinutes,
+                                  int longestGapMinutes, List<Gap> gaps) implements ScheduleGaps {
+        public record Gap(String startTime, String endTime, int minutes) {}
+    }
+
+    @Table("availability")
+    @Consume.FromKeyValueEntity(ScheduleEntity.class)
+    public static class Updater extends TableUpdater<AvailabilityRow> {
+        public Effect<AvailabilityRow> onChange(StoredSchedule stored) {
+            var schedule = stored.toSchedule();
+            ProjectionMetrics.record(getClass(), schedule, updateContext());
+            // only active schedules can be booked
+            if (schedule.status() != Schedule.Status.ACTIVE)
+                return effects().deleteRow();
+
+            var gaps = schedule.freeSlots().stream()
+                    .map(gap -> new AvailabilityRow.Gap(gap.startTime().toString(), gap.endTime().toString(), (int) gap.duration().toMinutes()))
+                    .toList();
+            var longestGap = gaps.stream().mapToInt(AvailabilityRow.Gap::minutes).max().orElse(0);
+            var row = new AvailabilityRow(schedule.id().doctorId(), schedule.id().date().toString(),
+                    schedule.workingHours().startTime().toString(), schedule.workingHours().endTime().toString(),
+                    schedule.bookedMinutes(), longestGap, gaps);
+            return effects().updateRow(row);
+        }
+    }
+
+    public record DoctorRow(String id, String name, List<String> specialityKeys) {}
+
+    @Table("doctors")
+    @Consume.FromKeyValueEntity(DoctorEntity.class)
+    public static class DoctorUpdater extends TableUpdater<DoctorRow> {
+        public Effect<DoctorRow> onChange(Doctor doctor) {
+            ProjectionMetrics.record(getClass(), doctor, updateContext());
+            var keys = doctor.specialities().stream().map(Doctor::specialityKey).distinct().toList();
+            return effects().updateRow(new DoctorRow(doctor.id(), doctor.firstName() + " " + doctor.lastName(), keys));
+        }
+    }
+
+    /**
+     * A doctor's active schedule with room for the requested duration.
+     *
+     * @param startTime start of the working hours
+     * @param endTime end of the working hours
+     */
+    public record Candidate(String doctorId, String name, String date, String startTime, String endTime,
+                            int bookedMinutes, int longestGapMinutes, List<AvailabilityRow.Gap> gaps)
+            implements ScheduleGaps {
+    }
+
+    public record Candidates(List<Candidate> candidates) {}
+
+    /**
+     * @param specialityKey see {@link Doctor#specialityKey(String)}
+     * @param fromDate inclusive
+     * @param toDate inclusive
+     * @param limit maximum number of candidate schedules
+     */
+    public record FindCandidates(String specialityKey, String fromDate, String toDate, int minMinutes, int limit) {
+        public static FindCandidates of(String speciality, String fromDate, String toDate, int minMinutes, int limit) {
+            return new FindCandidates(Doctor.specialityKey(speciality), fromDate, toDate, minMinutes, limit);
+        }
+    }
+
+    /**
+     * Doctors of a speciality with an active schedule that has room for {@code minMinutes}, earliest date first
+     * and the least booked doctor first within a date.
+     */
+    @Query("""
+            SELECT (doctors.id AS doctorId, doctors.name AS name, availability.date AS date,
+                    availability.startTime AS startTime, availability.endTime AS endTime,
+                    availability.bookedMinutes AS bookedMinutes, availability.longestGapMinutes AS longestGapMinutes,
+                    availability.gaps AS gaps) AS candidates
+            FROM doctors
+            JOIN availability ON availability.doctorId = doctors.id
+            WHERE :specialityKey = ANY(doctors.specialityKeys)
+              AND availability.date >= :fromDate AND availability.date <= :toDate
+              AND availability.longestGapMinutes >= :minMinutes
+            ORDER BY availability.date, availability.bookedMinutes
+            LIMIT :limit
+            """)
+    public QueryEffect<Candidates> findCandidates(FindCandidates query) {
+        return queryResult();
+    }
+
+    public record AvailabilityRows(List<AvailabilityRow> schedules) {}
+
+    /**
+     * @param fromDate inclusive
+     * @param toDate inclusive
+     * @param limit maximum number of schedules
+     */
+    public record FindAvailability(List<String> doctorIds, String fromDate, String toDate, int minMinutes, int limit) {}
+
+    /**
+     * Active schedules of the given doctors with room for {@code minMinutes}, earliest date first and the least booked
+     * doctor first within a date.
+     */
+    @Query("""
+            SELECT * AS schedules FROM availability
+            WHERE doctorId = ANY(:doctorIds) AND date >= :fromDate AND date <= :toDate AND longestGapMinutes >= :minMinutes
+            ORDER BY date, bookedMinutes
+            LIMIT :limit
+            """)
+    public QueryEffect<AvailabilityRows> findAvailability(FindAvailability query) {
+        return queryResult();
+    }
+}
@@ -8,27 +8,136 @@ import com.clinic.application.ai.DoctorFinderAgent;
 import com.clinic.application.ai.UrgencyAgent;
 import com.clinic.domain.Appointment;
 import com.clinic.domain.Doctor;
+import com.clinic.domain.EntityKeys;
+import com.clinic.domain.RescheduleAppointmentState;
 import com.clinic.domain.Schedule;
 
+import com.typesafe.config.Config;
+
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Blocks a schedule, then reschedules or cancels its appointments and finally deletes it. Up to
+ * {@code clinic.delete-schedule.concurrency} reschedule workflows run at a time: each one reports back with
+ * {@link #rescheduleFinished} when it is done, and the workflow pauses while the window is full. The outcome of every
+ * appointment is kept in the workflow state.
+ * <p>
+ * Reschedules in flight never get overlapping slots, and an appointment is only recorded as rescheduled once its
+ * reschedule workflow has moved it. A retried step picks up what an earlier attempt already did to an appointment
+ * instead of starting it again.
+ */
 @Component(id = "delete-schedule")
 public class DeleteScheduleWorkflow extends Workflow<DeleteScheduleWorkflow.DeleteScheduleState> {
 
     private final ComponentClient componentClient;
+    private final DoctorCache doctorCache;
+    private final int concurrency;
     private static final Duration DEFAULT_DURATION = Duration.ofMinutes(30);
+    private static final int MAX_CANDIDATES = 20;
+    private static final StructuredLog log = StructuredLog.of(DeleteScheduleWorkflow.class);
 
-    public DeleteScheduleWorkflow(ComponentClient componentClient) {
+    public DeleteScheduleWorkflow(ComponentClient componentClient, DoctorCache doctorCache, Config config) {
         this.componentClient = componentClient;
+        this.doctorCache = doctorCache;
+        this.concurrency = config.getInt("clinic.delete-schedule.concurrency");
+    }
+
+    public enum Outcome {RESCHEDULED, CANCELLED, NOT_FOUND, FAILED}
+
+    public record AppointmentOutcome(String appointmentId, Outcome outcome, Optional<String> newDoctorId,
+                                     Optional<LocalDateTime> newDateTime, Optional<String> reason) {
+        static AppointmentOutcome of(String appointmentId, Outcome outcome) {
+            return new AppointmentOutcome(appointmentId, outcome, Optional.empty(), Optional.empty(), Optional.empty());
+        }
+
+        static AppointmentOutcome rescheduled(String appointmentId, RescheduleAppointmentWorkflow.RescheduleAppointmentCommand slot) {
+            return new AppointmentOutcome(appointmentId, Outcome.RESCHEDULED, Optional.of(slot.newDoctorId()),
+                    Optional.of(slot.newDateTime()), Optional.empty());
+        }
+
+        static AppointmentOutcome cancelled(String appointmentId, String reason) {
+            return new AppointmentOutcome(appointmentId, Outcome.CANCELLED, Optional.empty(), Optional.empty(), Optional.of(reason));
+        }
+
+        static AppointmentOutcome failed(String appointmentId, String reason) {
+            return new AppointmentOutcome(appointmentId, Outcome.FAILED, Optional.empty(), Optional.empty(), Optional.ofNullable(reason));
+        }
+    }
+
+    /**
+     * @param appointmentsToCancel appointments not processed yet
+     * @param urgencies urgency by appointment id from the batch triage, missing appointments are triaged one by one
+     * @param inFlight the new slot of each appointment whose reschedule workflow has not reported back yet
+     * @param waiting paused until a reschedule workflow reports back
+     */
+    public record DeleteScheduleState(String doctorId, LocalDate date, List<String> appointmentsToCancel,
+                                      List<AppointmentOutcome> outcomes, Map<String, String> urgencies,
+                                      Map<String, RescheduleAppointmentWorkflow.RescheduleAppointmentCommand> inFlight,
+                                      boolean waiting) {
+        public DeleteScheduleState {
+            // state persisted before outcomes, urgencies and reschedules in flight were recorded
+            if (outcomes == null)
+                outcomes = List.of();
+            if (urgencies == null)
+                urgencies = Map.of();
+            if (inFlight == null)
+                inFlight = Map.of();
+        }
+
+        DeleteScheduleState withUrgencies(Map<String, String> urgencies) {
+            return new DeleteScheduleState(doctorId, date, appointmentsToCancel, outcomes, urgencies, inFlight, waiting);
+        }
+
+        DeleteScheduleState withWaiting(boolean waiting) {
+            return new DeleteScheduleState(doctorId, date, appointmentsToCancel, outcomes, urgencies, inFlight, waiting);
+        }
+
+        DeleteScheduleState processed(AppointmentOutcome outcome) {
+            var outcomes = new ArrayList<>(this.outcomes);
+            outcomes.add(outcome);
+            var inFlight = new HashMap<>(this.inFlight);
+            inFlight.remove(outcome.appointmentId());
+            return new DeleteScheduleState(doctorId, date, without(outcome.appointmentId()), outcomes, urgencies,
+                    Map.copyOf(inFlight), waiting);
+        }
+
+        DeleteScheduleState started(String appointmentId, RescheduleAppointmentWorkflow.RescheduleAppointmentCommand slot) {
+            var inFlight = new HashMap<>(this.inFlight);
+            inFlight.put(appointmentId, slot);
+            return new DeleteScheduleState(doctorId, date, without(appointmentId), outcomes, urgencies,
+                    Map.copyOf(inFlight), waiting);
+        }
+
+        /**
+         * Puts an appointment whose reschedule left it in place back in front of the queue, to be cancelled.
+         */
+        DeleteScheduleState requeued(String appointmentId) {
+            var inFlight = new HashMap<>(this.inFlight);
+            inFlight.remove(appointmentId);
+            var remaining = new ArrayList<String>(appointmentsToCancel.size() + 1);
+            remaining.add(appointmentId);
+            remaining.addAll(without(appointmentId));
+            return new DeleteScheduleState(doctorId, date, List.copyOf(remaining), outcomes, urgencies,
+                    Map.copyOf(inFlight), waiting);
+        }
+
+        private List<String> without(String appointmentId) {
+            return appointmentsToCancel.stream().filter(id -> !id.equals(appointmentId)).toList();
+        }
     }
 
-    public record DeleteScheduleState(String doctorId, LocalDate date, List<String> appointmentsToCancel) {}
     public record DeleteScheduleCommand(String doctorId, LocalDate date) {}
 
     /**
@@ -38,7 +147,7 @@ public class DeleteScheduleWorkflow extends Workflow<DeleteScheduleWorkflow.Dele
         if (currentState() != null) {
             return effects().error("Workflow already running for this schedule deletion.");
         }
-        var state = new DeleteScheduleState(cmd.doctorId, cmd.date, List.of());
+        var state = new DeleteScheduleState(cmd.doctorId, cmd.date, List.of(), List.of(), Map.of(), Map.of(), false);
         return effects()
                 .updateState(state)
                 .transitionTo(DeleteScheduleWorkflow::blockSchedule) // Move to step 2
@@ -49,6 +158,7 @@ public class DeleteScheduleWorkflow extends Workflow<DeleteScheduleWorkflow.Dele
      * Step 2: Lock the schedule.
      */
     public StepEffect blockSchedule() {
+        var started = System.nanoTime();
         var scheduleId = new Schedule.ScheduleId(currentState().doctorId(), currentState().date()).toString();
 
         List<String> appointmentIds;
@@ -58,52 +168,159 @@ public class DeleteScheduleWorkflow extends Workflow<DeleteScheduleWorkflow.Dele
                     .method(ScheduleEntity::blockSchedule)
                     .invoke();
         } catch (Exception e) {
-            System.err.println("Failed to block schedule " + scheduleId + ": " + e.getMessage());
+            log.warn().addKeyValue("workflowId", commandContext().workflowId())
+                    .addKeyValue("scheduleId", scheduleId)
+                    .addKeyValue("reason", e.getMessage())
+                    .log("Failed to block schedule");
             return stepEffects().thenEnd();
         }
 
         var newState = new DeleteScheduleState(
                 currentState().doctorId(),
                 currentState().date(),
-                appointmentIds
+                appointmentIds,
+                List.of(),
+                Map.of(),
+                Map.of(),
+                false
         );
 
+        log.step(commandContext().workflowId(), "blockSchedule", started);
         return stepEffects()
                 .updateState(newState)
+                .thenTransitionTo(DeleteScheduleWorkflow::triageAppointments);
+    }
+
+    /**
+     * Triages all blocked appointments with one agent call. The agent replies with an empty result when the model
+     * call or its reply fails, appointments without a valid urgency are then triaged one by one while processing.
+     */
+    public StepEffect triageAppointments() {
+        var started = System.nanoTime();
+        var workflowId = commandContext().workflowId();
+
+        var appointments = currentState().appointmentsToCancel().stream()
+                .map(appointmentId -> componentClient
+                        .forEventSourcedEntity(appointmentId)
+                        .method(AppointmentEntity::getAppointment)
+                        .invokeAsync()
+                        .exceptionally(error -> Optional.empty())
+                        .toCompletableFuture())
+                .toList();
+        var items = appointments.stream()
+                .map(CompletableFuture::join)
+                .flatMap(Optional::stream)
+                .map(appointment -> new UrgencyAgent.TriageItem(appointment.id(), appointment.issue()))
+                .toList();
+
+        var urgencies = componentClient
+                .forAgent()
+                .inSession(EntityKeys.agentSessionId(workflowId, "triage"))
+                .method(UrgencyAgent::triage)
+                .invoke(items)
+                .byAppointmentId();
+
+        log.info().addKeyValue("workflowId", workflowId)
+                .addKeyValue("appointments", items.size())
+                .addKeyValue("triaged", urgencies.size())
+                .log("Batch triage finished");
+        log.step(workflowId, "triageAppointments", started);
+        return stepEffects()
+                .updateState(currentState().withUrgencies(urgencies))
                 .thenTransitionTo(DeleteScheduleWorkflow::processNextAppointment);
     }
 
 
     /**
-     * Step 3: Process Appointments
+     * Step 3: Process Appointments, while the window of reschedules in flight has room.
      */
     public StepEffect processNextAppointment() {
         var appointmentsToCancel = currentState().appointmentsToCancel();
+        var inFlight = currentState().inFlight();
 
-        if (appointmentsToCancel.isEmpty()) {
+        if (appointmentsToCancel.isEmpty() && inFlight.isEmpty()) {
             return stepEffects().thenTransitionTo(DeleteScheduleWorkflow::softDeleteSchedule);
         }
+        if (!appointmentsToCancel.isEmpty() && inFlight.size() < concurrency) {
+            return stepEffects().thenTransitionTo(DeleteScheduleWorkflow::attemptReschedule);
+        }
 
-        return stepEffects().thenTransitionTo(DeleteScheduleWorkflow::attemptReschedule);
+        // resumed by rescheduleFinished
+        log.debug().addKeyValue("workflowId", commandContext().workflowId())
+                .addKeyValue("inFlight", inFlight.size())
+                .addKeyValue("remaining", appointmentsToCancel.size())
+                .log("Waiting for a reschedule to finish");
+        return stepEffects()
+                .updateState(currentState().withWaiting(true))
+                .thenPause();
     }
 
     /**
-     * Step 4: Attempt to Reschedule.
+     * Step 4: Reschedule or cancel the next appointment. A reschedule is started without waiting for it, the
+     * appointment stays in flight until its workflow reports back.
      */
     public StepEffect attemptReschedule() {
-        var appointmentsToCancel = currentState().appointmentsToCancel();
-        var appointmentId = appointmentsToCancel.get(0);
-        var remainingAppointments = appointmentsToCancel.stream().skip(1).toList();
+        var started = System.nanoTime();
+        var workflowId = commandContext().workflowId();
+        var appointmentId = currentState().appointmentsToCancel().getFirst();
 
-        System.out.println("Attempting to reschedule appointment " + appointmentId);
-        System.out.println("Remaining appointments size: " + remainingAppointments.size());
+        log.debug().addKeyValue("workflowId", workflowId)
+                .addKeyValue("appointmentId", appointmentId)
+                .addKeyValue("inFlight", currentState().inFlight().size())
+                .log("Attempting to reschedule appointment");
 
-        var newState = new DeleteScheduleState(
-                currentState().doctorId(),
-                currentState().date(),
-                remainingAppointments
-        );
+        var newState = switch (processAppointment(workflowId, appointmentId)) {
+            case Progress.Finished finished -> currentState().processed(finished.outcome());
+            case Progress.Started reschedule -> currentState().started(appointmentId, reschedule.slot());
+        };
+
+        log.step(workflowId, "attemptReschedule", started);
+        return stepEffects()
+                .updateState(newState)
+                .thenTransitionTo(DeleteScheduleWorkflow::processNextAppointment);
+    }
+
+    public record RescheduleFinished(String appointmentId, RescheduleAppointmentState.Status status) {}
+
+    /**
+     * Called by a reschedule workflow started here once it is done. An appointment it could not move goes back
+     * into the queue to be cancelled.
+     */
+    public Effect<Done> rescheduleFinished(RescheduleFinished result) {
+        if (currentState() == null)
+            return effects().error("Schedule deletion not found");
+        var slot = currentState().inFlight().get(result.appointmentId());
+        if (slot == null)
+            // already recorded, a repeated report
+            return effects().reply(Done.getInstance());
+
+        if (result.status() == RescheduleAppointmentState.Status.STARTED)
+            return effects().error("Reschedule of " + result.appointmentId() + " has not finished");
+        var newState = result.status() == RescheduleAppointmentState.Status.RESCHEDULED
+                ? currentState().processed(AppointmentOutcome.rescheduled(result.appointmentId(), slot))
+                : currentState().requeued(result.appointmentId());
+
+        if (!newState.waiting())
+            // a step is running and gets back to processNextAppointment on its own
+            return effects().updateState(newState).thenReply(Done.getInstance());
+        return effects()
+                .updateState(newState.withWaiting(false))
+                .transitionTo(DeleteScheduleWorkflow::processNextAppointment)
+                .thenReply(Done.getInstance());
+    }
+
+    /**
+     * What processing an appointment led to: its outcome, or a reschedule that reports back when done.
+     */
+    private sealed interface Progress {
+        record Finished(AppointmentOutcome outcome) implements Progress {}
+
+        record Started(RescheduleAppointmentWorkflow.RescheduleAppointmentCommand slot) implements Progress {}
+    }
 
+    private Progress processAppointment(String workflowId, String appointmentId) {
+        var doctorId = currentState().doctorId();
+        var date = currentState().date();
         try {
             Appointment appointment = componentClient
                     .forEventSourcedEntity(appointmentId)
@@ -112,51 +329,86 @@ public class DeleteScheduleWorkflow extends Workflow<DeleteScheduleWorkflow.Dele
                     .orElse(null);
 
             if (appointment == null) {
-                System.out.println("Appointment " + appointmentId + " not found");
-                return stepEffects()
-                        .updateState(newState)
-                        .thenTransitionTo(DeleteScheduleWorkflow::processNextAppointment);
+                log.info().addKeyValue("workflowId", workflowId)
+                        .addKeyValue("appointmentId", appointmentId)
+                        .log("Appointment not found");
+                return new Progress.Finished(AppointmentOutcome.of(appointmentId, Outcome.NOT_FOUND));
             }
 
-            var urgencySession = commandContext().workflowId() + "-" + appointmentId;
-            String urgency = componentClient
-                    .forAgent()
-                    .inSession(urgencySession)
-                    .method(UrgencyAgent::urgency)
-                    .invoke(appointment.issue())
-                    .trim()
-                    .toLowerCase();
+            // an earlier attempt at this step may have got as far as cancelling, moving or starting to move it
+            if (appointment.status() == Appointment.Status.CANCELLED)
+                return new Progress.Finished(AppointmentOutcome.of(appointmentId, Outcome.CANCELLED));
+            if (!appointment.doctorId().equals(doctorId) || !appointment.dateTime().toLocalDate().equals(date))
+                return new Progress.Finished(AppointmentOutcome.rescheduled(appointmentId,
+                        new RescheduleAppointmentWorkflow.RescheduleAppointmentCommand(appointment.dateTime(), appointment.doctorId())));
+            var startedBefore = componentClient
+                    .forWorkflow(appointmentId)
+                    .method(RescheduleAppointmentWorkflow::getReschedule)
+                    .invoke()
+                    .filter(reschedule -> reschedule.oldDoctorId().equals(doctorId)
+                            && reschedule.oldDateTime().toLocalDate().equals(date));
+            if (startedBefore.isPresent()) {
+                var reschedule = startedBefore.get();
+                if (reschedule.status() == RescheduleAppointmentState.Status.STARTED)
+                    return new Progress.Started(new RescheduleAppointmentWorkflow.RescheduleAppointmentCommand(
+                            reschedule.newDatetime(), reschedule.newDoctorId()));
+                // the appointment is still here, so the reschedule left it in place
+                return new Progress.Finished(cancel(workflowId, appointmentId, "New slot could not be booked"));
+            }
+
+            var urgency = currentState().urgencies().get(appointmentId);
+            if (urgency == null)
+                urgency = triage(workflowId, appointment);
 
             Optional<RescheduleAppointmentWorkflow.RescheduleAppointmentCommand> newSlot =
-                    findNextAvailableSlot(appointment, urgency);
-
-            if (newSlot.isPresent()) {
-                System.out.println("There is a new slot available!!!!");
-                componentClient
-                        .forWorkflow(appointmentId)
-                        .method(RescheduleAppointmentWorkflow::startRescheduleAppointment)
-                        .invoke(newSlot.get());
-            } else {
-                System.out.println("There is no slot available!!!!");
-                componentClient
-                        .forEventSourcedEntity(appointmentId)
-                        .method(AppointmentEntity::cancel)
-                        .invoke();
-            }
+                    findNextAvailableSlot(workflowId, appointment, urgency, currentState().inFlight().values());
+
+            if (newSlot.isEmpty())
+                return new Progress.Finished(cancel(workflowId, appointmentId, "No slot available"));
 
+            log.info().addKeyValue("workflowId", workflowId)
+                    .addKeyValue("appointmentId", appointmentId)
+                    .addKeyValue("doctorId", newSlot.get().newDoctorId())
+                    .addKeyValue("dateTime", newSlot.get().newDateTime())
+                    .log("Rescheduling appointment to a new slot");
+            var reportingSlot = newSlot.get().reportingTo(workflowId);
+            componentClient
+                    .forWorkflow(appointmentId)
+                    .method(RescheduleAppointmentWorkflow::startRescheduleAppointment)
+                    .invoke(reportingSlot);
+            return new Progress.Started(newSlot.get());
         } catch (Exception e) {
-            System.err.println("Failed to process appointment " + appointmentId + ": " + e.getMessage());
+            log.warn().addKeyValue("workflowId", workflowId)
+                    .addKeyValue("appointmentId", appointmentId)
+                    .addKeyValue("reason", e.getMessage())
+                    .log("Failed to process appointment");
+            return new Progress.Finished(AppointmentOutcome.failed(appointmentId, e.getMessage()));
         }
+    }
 
-        return stepEffects()
-                .updateState(newState)
-                .thenTransitionTo(DeleteScheduleWorkflow::processNextAppointment);
+    private AppointmentOutcome cancel(String workflowId, String appointmentId, String reason) {
+        log.info().addKeyValue("workflowId", workflowId)
+                .addKeyValue("appointmentId", appointmentId)
+                .addKeyValue("reason", reason)
+                .log("Cancelling appointment");
+        componentClient
+                .forEventSourcedEntity(appointmentId)
+                .method(AppointmentEntity::cancel)
+                .invoke();
+        return AppointmentOutcome.cancelled(appointmentId, reason);
+    }
+
+    public Effect<DeleteScheduleState> getDeletion() {
+        if (currentState() == null)
+            return effects().error("Schedule deletion not found");
+        return effects().reply(currentState());
     }
 
     /**
      * Step 5: Finish Deletion.
      */
     public StepEffect softDeleteSchedule() {
+        var started = System.nanoTime();
         var scheduleId = new Schedule.ScheduleId(currentState().doctorId(), currentState().date()).toString();
         try {
             componentClient
@@ -164,20 +416,37 @@ public class DeleteScheduleWorkflow extends Workflow<DeleteScheduleWorkflow.Dele
                     .method(ScheduleEntity::deleteSchedule)
                     .invoke();
         } catch (Exception e) {
-            System.err.println("Failed to soft-delete schedule " + scheduleId + ": " + e.getMessage());
+            log.warn().addKeyValue("workflowId", commandContext().workflowId())
+                    .addKeyValue("scheduleId", scheduleId)
+                    .addKeyValue("reason", e.getMessage())
+                    .log("Failed to soft-delete schedule");
         }
+        log.step(commandContext().workflowId(), "softDeleteSchedule", started);
         return stepEffects().thenEnd(); // End the workflow
     }
 
 
+    private String triage(String workflowId, Appointment appointment) {
+        var urgencySession = EntityKeys.agentSessionId(workflowId, appointment.id());
+        return componentClient
+                .forAgent()
+                .inSession(urgencySession)
+                .method(UrgencyAgent::urgency)
+                .invoke(appointment.issue())
+                .trim()
+                .toLowerCase();
+    }
+
     /**
      * Helper Function
+     *
+     * @param taken slots of the reschedules in flight, which their schedules may not show yet
      */
-    private Optional<RescheduleAppointmentWorkflow.RescheduleAppointmentCommand> findNextAvailableSlot(Appointment appointment, String urgency) {
+    private Optional<RescheduleAppointmentWorkflow.RescheduleAppointmentCommand> findNextAvailableSlot(
+            String workflowId, Appointment appointment, String urgency,
+            Collection<RescheduleAppointmentWorkflow.RescheduleAppointmentCommand> taken) {
         try {
-            System.out.println("..........Trying to find a new slot for issue: " + appointment.issue() + "..........");
-
-            var agentSession = commandContext().workflowId() + "-" + appointment.id();
+            var agentSession = EntityKeys.agentSessionId(workflowId, appointment.id());
             String speciality = componentClient
                     .forAgent()
                     .inSession(agentSession)
@@ -185,15 +454,15 @@ public class DeleteScheduleWorkflow extends Workflow<DeleteScheduleWorkflow.Dele
                     .invoke(appointment.issue())
                     .trim();
 
-            System.out.println("AI determined speciality: " + speciality);
+            log.debug().addKeyValue("appointmentId", appointment.id())
+                    .addKeyValue("speciality", speciality)
+                    .log("Speciality determined for issue");
 
             // Fallback
             if (speciality.isEmpty() || speciality.length() > 50) {
-                System.out.println("AI returned invalid speciality, falling back to original doctor's speciality.");
-                Doctor originalDoctor = componentClient
-                        .forKeyValueEntity(appointment.doctorId())
-                        .method(DoctorEntity::getDoctor)
-                        .invoke()
+                log.info().addKeyValue("appointmentId", appointment.id())
+                        .log("Invalid speciality returned, falling back to the original doctor's speciality");
+                Doctor originalDoctor = doctorCache.getDoctor(appointment.doctorId())
                         .orElseThrow(() -> new RuntimeException("Original doctor not found"));
                 if (originalDoctor.specialities().isEmpty()) {
                     return Optional.empty();
@@ -201,97 +470,81 @@ public class DeleteScheduleWorkflow extends Workflow<DeleteScheduleWorkflow.Dele
                 speciality = originalDoctor.specialities().getFirst();
             }
 
-            List<DoctorsView.DoctorRow> similarDoctors = componentClient
-                    .forView()
-                    .method(DoctorsView::findBySpeciality)
-                    .invoke(new DoctorsView.FindBySpecialityQuery(speciality))
-                    .doctors();
-
-            System.out.println("List of similar doctors in " + speciality + ": " + similarDoctors);
-
-            int searchDurationDays;
             LocalDate searchStartDate = appointment.dateTime().toLocalDate();
-
-            switch (urgency) {
-                case "high":
-                    searchDurationDays = 7;
-                    System.out.println("HIGH urgency: Searching for 7 days starting from today.");
-                    break;
-                case "medium":
-                    searchDurationDays = 7;
-                    System.out.println("MEDIUM urgency: Searching for 7 days starting from " + searchStartDate);
-                    break;
-                case "low":
-                default:
-                    searchDurationDays = 14;
-                    System.out.println("LOW urgency: Searching for 14 days starting from " + searchStartDate);
-                    break;
-            }
-
-            LocalDate searchDate = searchStartDate;
-            for (int i = 0; i < searchDurationDays; i++) {
-                for (DoctorsView.DoctorRow doctor : similarDoctors) {
-                    var scheduleId = new Schedule.ScheduleId(doctor.id(), searchDate).toString();
-                    Schedule schedule = componentClient
-                            .forKeyValueEntity(scheduleId)
-                            .method(ScheduleEntity::getSchedule)
-                            .invoke()
-                            .orElse(null);
-
-                    if (schedule != null && schedule.status() == Schedule.Status.ACTIVE) {
-                        Optional<LocalTime> availableSlotTime = findFirstAvailableSlot(schedule);
-
-                        if (availableSlotTime.isPresent()) {
-                            LocalTime slotTime = availableSlotTime.get();
-                            LocalDateTime newDateTime = searchDate.atTime(slotTime);
-                            System.out.println("Found available slot with " + doctor.id() + " on " + newDateTime);
-                            return Optional.of(new RescheduleAppointmentWorkflow.RescheduleAppointmentCommand(newDateTime, doctor.id()));
-                        }
-                    }
-                }
-                searchDate = searchDate.plusDays(1);
+            int searchDurationDays = switch (urgency) {
+                case "high", "medium" -> 7;
+                default -> 14;
+            };
+            log.debug().addKeyValue("appointmentId", appointment.id())
+                    .addKeyValue("urgency", urgency)
+                    .addKeyValue("speciality", speciality)
+                    .addKeyValue("from", searchStartDate)
+                    .addKeyValue("days", searchDurationDays)
+                    .log("Searching for a new slot");
+
+            var minMinutes = (int) DEFAULT_DURATION.toMinutes();
+            // one joined query, ordered by date and then by the least booked doctor
+            var candidates = componentClient
+                    .forView()
+                    .method(AvailabilityView::findCandidates)
+                    .invoke(AvailabilityView.FindCandidates.of(
+                            speciality,
+                            searchStartDate.toString(),
+                            searchStartDate.plusDays(searchDurationDays - 1).toString(),
+                            minMinutes,
+                            MAX_CANDIDATES))
+                    .candidates()
+                    .stream()
+                    .flatMap(row -> row.gapsOfAtLeast(minMinutes).stream()
+                            .flatMap(gap -> startsWithin(gap, DEFAULT_DURATION))
+                            .map(start -> new RescheduleAppointmentWorkflow.RescheduleAppointmentCommand(
+                                    LocalDate.parse(row.date()).atTime(start), row.doctorId())))
+                    .filter(candidate -> taken.stream().noneMatch(other -> overlaps(candidate, other)))
+                    .toList();
+
+            // the view is eventually consistent, so confirm the candidate with its schedule before using it
+            for (var candidate : candidates) {
+                var scheduleId = new Schedule.ScheduleId(candidate.newDoctorId(), candidate.newDateTime().toLocalDate()).toString();
+                boolean available = componentClient
+                        .forKeyValueEntity(scheduleId)
+                        .method(ScheduleEntity::isAvailable)
+                        .invoke(new ScheduleEntity.AvailabilityQuery(candidate.newDateTime().toLocalTime(), DEFAULT_DURATION));
+
+                if (available)
+                    return Optional.of(candidate);
             }
 
-            System.out.println("Uh oh, could not find another slot in the " + searchDurationDays + "-day window.");
             return Optional.empty();
         } catch (Exception e) {
-            System.err.println("Error finding next available slot: " + e.getMessage());
+            log.warn().addKeyValue("appointmentId", appointment.id())
+                    .addKeyValue("reason", e.getMessage())
+                    .log("Error finding next available slot");
             return Optional.empty();
         }
     }
 
-    private Optional<LocalTime> findFirstAvailableSlot(Schedule schedule) {
-        List<Schedule.TimeSchedule> sortedSlots = schedule.timeSlots().stream()
-                .sorted(Comparator.comparing(Schedule.TimeSchedule::startTime))
-                .toList();
-
-        LocalTime lastEndTime = schedule.workingHours().startTime();
-
-        for (Schedule.TimeSchedule slot : sortedSlots) {
-            LocalTime currentStartTime = slot.startTime();
-
-            if (Duration.between(lastEndTime, currentStartTime).compareTo(DeleteScheduleWorkflow.DEFAULT_DURATION) >= 0) {
-                return Optional.of(lastEndTime);
-            }
-
-            if (slot.endTime().isAfter(lastEndTime)) {
-                lastEndTime = slot.endTime();
-            }
-        }
-
-        LocalTime workingEndTime = schedule.workingHours().endTime();
-        if (Duration.between(lastEndTime, workingEndTime).compareTo(DeleteScheduleWorkflow.DEFAULT_DURATION) >= 0) {
-            return Optional.of(lastEndTime);
-        }
+    private static Stream<LocalTime> startsWithin(AvailabilityView.AvailabilityRow.Gap gap, Duration duration) {
+        int start = LocalTime.parse(gap.startTime()).toSecondOfDay() / 60;
+        int end = LocalTime.parse(gap.endTime()).toSecondOfDay() / 60;
+        int minutes = (int) duration.toMinutes();
+        return IntStream.iterate(start, minute -> minute + minutes <= end, minute -> minute + minutes)
+                .mapToObj(minute -> LocalTime.ofSecondOfDay(minute * 60L));
+    }
 
-        return Optional.empty();
+    private static boolean overlaps(RescheduleAppointmentWorkflow.RescheduleAppointmentCommand slot,
+                                    RescheduleAppointmentWorkflow.RescheduleAppointmentCommand other) {
+        return slot.newDoctorId().equals(other.newDoctorId())
+                && slot.newDateTime().isBefore(other.newDateTime().plus(DEFAULT_DURATION))
+                && other.newDateTime().isBefore(slot.newDateTime().plus(DEFAULT_DURATION));
     }
 
     @Override
     public WorkflowSettings settings() {
         return WorkflowSettingsBuilder
                 .newBuilder()
-                .stepTimeout(DeleteScheduleWorkflow::attemptReschedule, Duration.ofSeconds(30))
+                // these steps wait for agent calls
+                .stepTimeout(DeleteScheduleWorkflow::attemptReschedule, Duration.ofSeconds(60))
+                .stepTimeout(DeleteScheduleWorkflow::triageAppointments, Duration.ofSeconds(60))
                 .build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,158 @@
+package com.clinic.application;
+
+import akka.javasdk.client.ComponentClient;
+import com.clinic.domain.Doctor;
+import com.typesafe.config.Config;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+/**
+ * Node-local read-through cache of doctors and of the doctors of each speciality, least recently used entries are
+ * evicted beyond {@code clinic.doctor-cache.max-entries}.
+ * <p>
+ * Changes are applied by {@link DoctorDirectoryConsumer}, but only on the node that consumes them, so entries also
+ * expire after {@code clinic.doctor-cache.ttl}. A value loaded on a miss is only stored if no change was applied
+ * while it was loading, so it never replaces a newer entry.
+ */
+public final class DoctorCache {
+
+    public record Stats(long hits, long misses, long evictions, long expirations, int doctors, int specialities) {}
+
+    private final ComponentClient componentClient;
+    private final long ttlNanos;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final Lru<Doctor> doctors;
+    private final Lru<List<DoctorsView.SpecialityRow>> specialities;
+
+    public DoctorCache(ComponentClient componentClient, Config config) {
+        this(componentClient, config.getInt("clinic.doctor-cache.max-entries"), config.getDuration("clinic.doctor-cache.ttl"));
+    }
+
+    DoctorCache(ComponentClient componentClient, int maxEntries, Duration ttl) {
+        this.componentClient = componentClient;
+        this.ttlNanos = ttl.toNanos();
+        this.doctors = new Lru<>(maxEntries);
+        this.specialities = new Lru<>(maxEntries);
+    }
+
+    public Optional<Doctor> getDoctor(String doctorId) {
+        var cached = doctors.get(doctorId);
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(cached);
+        }
+        misses.increment();
+        var writes = doctors.writes();
+        var doctor = componentClient
+                .forKeyValueEntity(doctorId)
+                .method(DoctorEntity::getDoctor)
+                .invoke();
+        doctor.ifPresent(found -> doctors.putIfUnchanged(doctorId, found, writes));
+        return doctor;
+    }
+
+    public List<DoctorsView.SpecialityRow> findBySpeciality(String speciality) {
+        var key = Doctor.specialityKey(speciality);
+        var cached = specialities.get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        var writes = specialities.writes();
+        var rows = componentClient
+                .forView()
+                .method(DoctorsView::findBySpecialityKey)
+                .invoke(new DoctorsView.FindBySpecialityKey(key))
+                .doctors();
+        specialities.putIfUnchanged(key, rows, writes);
+        return rows;
+    }
+
+    /**
+     * Applies a changed doctor to the cached entries, speciality lists are patched rather than dropped since the
+     * view they are loaded from may not have the change yet.
+     */
+    void update(Doctor doctor) {
+        doctors.put(doctor.id(), doctor);
+        var row = DoctorsView.SpecialityRow.of(doctor, Instant.now());
+        specialities.replaceAll((key, rows) -> {
+            var updated = new ArrayList<DoctorsView.SpecialityRow>(rows.size() + 1);
+            rows.stream().filter(other -> !other.id().equals(doctor.id())).forEach(updated::add);
+            if (row.specialityKeys().contains(key))
+                updated.add(row);
+            return List.copyOf(updated);
+        });
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), expirations.sum(), doctors.size(), specialities.size());
+    }
+
+    private final class Lru<V> {
+        private record Entry<V>(V value, long expiresAt) {}
+
+        private final Map<String, Entry<V>> entries;
+        // changes applied so far, a load compares it to tell whether one happened while it was in flight
+        private long writes;
+
+        Lru(int maxEntries) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry<V>> eldest) {
+                    if (size() <= maxEntries)
+                        return false;
+                    evictions.increment();
+                    return true;
+                }
+            };
+        }
+
+        synchronized V get(String key) {
+            var entry = entries.get(key);
+            if (entry == null)
+                return null;
+            if (System.nanoTime() - entry.expiresAt() > 0) {
+                entries.remove(key);
+                expirations.increment();
+                return null;
+            }
+            return entry.value();
+        }
+
+        synchronized long writes() {
+            return writes;
+        }
+
+        synchronized void put(String key, V value) {
+            writes++;
+            entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+        }
+
+        synchronized void putIfUnchanged(String key, V value, long writesBefore) {
+            if (writes == writesBefore)
+                entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+        }
+
+        synchronized void replaceAll(BiFunction<String, V, V> update) {
+            writes++;
+            var expiresAt = System.nanoTime() + ttlNanos;
+            entries.replaceAll((key, entry) -> new Entry<>(update.apply(key, entry.value()), expiresAt));
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+}
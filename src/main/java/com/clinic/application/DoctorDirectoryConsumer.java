@@ -0,0 +1,22 @@
+package com.clinic.application;
+
+import akka.javasdk.annotations.Component;
+import akka.javasdk.annotations.Consume;
+import akka.javasdk.consumer.Consumer;
+import com.clinic.domain.Doctor;
+
+@Component(id = "doctor-directory-consumer")
+@Consume.FromKeyValueEntity(DoctorEntity.class)
+public class DoctorDirectoryConsumer extends Consumer {
+
+    private final DoctorCache doctorCache;
+
+    public DoctorDirectoryConsumer(DoctorCache doctorCache) {
+        this.doctorCache = doctorCache;
+    }
+
+    public Effect onChange(Doctor doctor) {
+        doctorCache.update(doctor);
+        return effects().done();
+    }
+}
@@ -8,49 +8,75 @@ import akka.javasdk.view.TableUpdater;
 import akka.javasdk.view.View;
 import com.clinic.domain.Doctor;
 
+import java.time.Instant;
+import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
 
-@Component(id = "doctors-view")
+// rows carry the time of their last change, the id changed so the view is rebuilt with it
+@Component(id = "doctors-view-v2")
 public class DoctorsView extends View {
 
-    public record DoctorRow(
-            String id,
-            String firstName,
-            String lastName,
-            List<String> specialities,
-            String description,
-            Optional<Doctor.Contact> contact
-    ) {}
+    /**
+     * Only what callers of speciality lookups need, with the specialities also in normalized form.
+     *
+     * @param updatedAt when the doctor last changed
+     */
+    public record SpecialityRow(String id, String name, List<String> specialities, List<String> specialityKeys,
+                                Instant updatedAt) {
+        public static SpecialityRow of(Doctor doctor, Instant updatedAt) {
+            var keys = doctor.specialities().stream().map(Doctor::specialityKey).distinct().toList();
+            return new SpecialityRow(doctor.id(), doctor.firstName() + " " + doctor.lastName(), doctor.specialities(), keys,
+                    updatedAt);
+        }
+    }
 
-    @Table("doctors")
+    @Table("doctor_specialities")
     @Consume.FromKeyValueEntity(DoctorEntity.class)
-    public static class Updater extends TableUpdater<DoctorRow> {
-        public Effect<DoctorRow> onChange(Doctor doctor) {
-            var row = new DoctorRow(
-                    doctor.id(),
-                    doctor.firstName(),
-                    doctor.lastName(),
-                    doctor.specialities(),
-                    doctor.description(),
-                    doctor.contact()
-            );
-            return effects().updateRow(row);
+    public static class SpecialityUpdater extends TableUpdater<SpecialityRow> {
+        public Effect<SpecialityRow> onChange(Doctor doctor) {
+            ProjectionMetrics.record(getClass(), doctor, updateContext());
+            var updatedAt = updateContext().metadata().asCloudEvent().time()
+                    .map(ZonedDateTime::toInstant)
+                    .orElseGet(Instant::now);
+            return effects().updateRow(SpecialityRow.of(doctor, updatedAt));
         }
     }
 
-    public record DoctorRows(List<DoctorRow> doctors) {}
+    public record SpecialityRows(List<SpecialityRow> doctors) {}
+
+    /**
+     * The most recently changed doctor, which changes whenever any row of the directory does.
+     */
+    public record DirectoryVersion(String id, Instant updatedAt) {}
 
-    @Query("SELECT * AS doctors FROM doctors")
-    public QueryEffect<DoctorRows> getAllDoctors() {
+    @Query("SELECT id, updatedAt FROM doctor_specialities ORDER BY updatedAt DESC, id DESC LIMIT 1")
+    public QueryEffect<Optional<DirectoryVersion>> getDirectoryVersion() {
         return queryResult();
     }
 
-    public record FindBySpecialityQuery(String speciality) {}
+    public record FindDoctorsPage(String pageToken, int pageSize) {}
 
-    @Query("SELECT * AS doctors FROM doctors WHERE :speciality = ANY(specialities)")
-    public QueryEffect<DoctorRows> findBySpeciality(FindBySpecialityQuery query) {
+    public record SpecialityRowPage(List<SpecialityRow> doctors, String nextPageToken, boolean hasMore) {}
+
+    @Query("""
+            SELECT * AS doctors, next_page_token() AS nextPageToken, has_more() AS hasMore
+            FROM doctor_specialities
+            ORDER BY name
+            OFFSET page_token_offset(:pageToken) LIMIT :pageSize
+            """)
+    public QueryEffect<SpecialityRowPage> getDoctorsPage(FindDoctorsPage query) {
         return queryResult();
     }
 
+    public record FindBySpecialityKey(String specialityKey) {
+        public static FindBySpecialityKey of(String speciality) {
+            return new FindBySpecialityKey(Doctor.specialityKey(speciality));
+        }
+    }
+
+    @Query("SELECT * AS doctors FROM doctor_specialities WHERE :specialityKey = ANY(specialityKeys)")
+    public QueryEffect<SpecialityRows> findBySpecialityKey(FindBySpecialityKey query) {
+        return queryResult();
+    }
 }
@@ -0,0 +1,232 @@
+package com.clinic.application;
+
+import akka.Done;
+import akka.javasdk.annotations.Component;
+import akka.javasdk.client.ComponentClient;
+import akka.javasdk.timedaction.TimedAction;
+import akka.javasdk.timer.TimerScheduler;
+import com.clinic.domain.Appointment;
+import com.clinic.domain.MissedSweep;
+import com.clinic.domain.Schedule;
+import com.typesafe.config.Config;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+
+/**
+ * Marks the appointments that are still scheduled at the end of their day as missed.
+ * <p>
+ * Doctors are swept in parallel, at most {@code clinic.missed-sweep.concurrency} at a time, and each doctor whose
+ * appointments were all checked is checkpointed in {@link MissedSweepEntity}. Doctors that failed are recorded in the
+ * checkpoint too, and the failed run fails the timer call, which is retried up to {@code clinic.missed-sweep.max-retries}
+ * times and resumes with the doctors that were not checkpointed.
+ */
+@Component(id = "missed-appointments-sweeper")
+public class MissedAppointmentsSweeper extends TimedAction {
+
+    private static final StructuredLog log = StructuredLog.of(MissedAppointmentsSweeper.class);
+
+    private final ComponentClient componentClient;
+    private final int concurrency;
+    private final LocalTime runAt;
+    private final int maxRetries;
+
+    public MissedAppointmentsSweeper(ComponentClient componentClient, Config config) {
+        this.componentClient = componentClient;
+        this.concurrency = config.getInt("clinic.missed-sweep.concurrency");
+        this.runAt = LocalTime.parse(config.getString("clinic.missed-sweep.run-at"));
+        this.maxRetries = config.getInt("clinic.missed-sweep.max-retries");
+    }
+
+    /**
+     * Schedules the daily run that sweeps {@code date}, on the following day at {@code runAt}.
+     * Timers are named after the swept date, so scheduling the same day again replaces the pending timer.
+     */
+    public static void scheduleSweep(TimerScheduler timers, ComponentClient componentClient, LocalDate date,
+                                     LocalTime runAt, int maxRetries) {
+        var delay = Duration.between(LocalDateTime.now(), date.plusDays(1).atTime(runAt));
+        timers.createSingleTimer(
+                "missed-sweep-" + date,
+                delay.isNegative() ? Duration.ZERO : delay,
+                maxRetries,
+                componentClient.forTimedAction()
+                        .method(MissedAppointmentsSweeper::sweepAndReschedule)
+                        .deferred(date));
+    }
+
+    /**
+     * @return the day whose sweep is the next one to run at {@code runAt}
+     */
+    public static LocalDate nextSweptDate(LocalTime runAt) {
+        var now = LocalDateTime.now();
+        var today = now.toLocalDate();
+        return now.toLocalTime().isBefore(runAt) ? today.minusDays(1) : today;
+    }
+
+    public Effect sweep(LocalDate date) {
+        return effects().asyncDone(sweepDay(date).thenApply(__ -> Done.getInstance()));
+    }
+
+    public Effect sweepAndReschedule(LocalDate date) {
+        // the next night is scheduled whatever happens to this one, so a day that keeps failing doesn't end the chain
+        scheduleSweep(timers(), componentClient, date.plusDays(1), runAt, maxRetries);
+        return effects().asyncDone(sweepDay(date).thenApply(__ -> Done.getInstance()));
+    }
+
+    private CompletionStage<MissedSweep> sweepDay(LocalDate date) {
+        return componentClient
+                .forKeyValueEntity(date.toString())
+                .method(MissedSweepEntity::start)
+                .invokeAsync(new MissedSweepEntity.StartSweepCmd(date, Instant.now()))
+                .thenCompose(checkpoint -> checkpoint.finishedAt().isPresent()
+                        ? CompletableFuture.completedFuture(checkpoint)
+                        : sweepPending(date, checkpoint));
+    }
+
+    private CompletionStage<MissedSweep> sweepPending(LocalDate date, MissedSweep checkpoint) {
+        Set<String> failedDoctors = ConcurrentHashMap.newKeySet();
+        return componentClient
+                .forView()
+                .method(SchedulesByDoctorView::getSummariesForDate)
+                .invokeAsync(date.toString())
+                .thenCompose(summaries -> {
+                    var pending = summaries.schedules().stream()
+                            .map(SchedulesByDoctorView.ScheduleSummary::doctorId)
+                            .filter(doctorId -> !checkpoint.hasSwept(doctorId))
+                            .toList();
+                    var queue = new ConcurrentLinkedQueue<>(pending);
+                    var workers = new CompletableFuture<?>[Math.min(concurrency, pending.size())];
+                    for (int i = 0; i < workers.length; i++)
+                        workers[i] = nextDoctor(queue, date, failedDoctors);
+                    return CompletableFuture.allOf(workers);
+                })
+                .thenCompose(__ -> {
+                    if (!failedDoctors.isEmpty())
+                        return componentClient
+                                .forKeyValueEntity(date.toString())
+                                .method(MissedSweepEntity::failRun)
+                                .invokeAsync()
+                                .thenCompose(failed -> CompletableFuture.<MissedSweep>failedFuture(new IllegalStateException(
+                                        "Sweep of " + date + " failed for " + failedDoctors.size() + " doctors in run "
+                                                + failed.failedRuns())));
+                    return componentClient
+                            .forKeyValueEntity(date.toString())
+                            .method(MissedSweepEntity::finish)
+                            .invokeAsync(Instant.now());
+                })
+                .thenApply(finished -> {
+                    log.info().addKeyValue("date", date)
+                            .addKeyValue("doctors", finished.sweptDoctorIds().size())
+                            .addKeyValue("checked", finished.checked())
+                            .addKeyValue("marked", finished.marked())
+                            .addKeyValue("failed", finished.failed())
+                            .addKeyValue("failedRuns", finished.failedRuns())
+                            .addKeyValue("appointmentsPerSecond", finished.throughput().orElse(0.0))
+                            .addKeyValue("lagSeconds", finished.lag(ZoneId.systemDefault(), Instant.now()).toSeconds())
+                            .log("Missed appointments sweep finished");
+                    return finished;
+                });
+    }
+
+    /**
+     * One worker of the fan-out: sweeps doctors from the shared queue until it is empty.
+     */
+    private CompletableFuture<Void> nextDoctor(Queue<String> queue, LocalDate date, Set<String> failedDoctors) {
+        var doctorId = queue.poll();
+        if (doctorId == null)
+            return CompletableFuture.completedFuture(null);
+
+        return sweepDoctor(doctorId, date)
+                .handle((result, error) -> {
+                    if (error == null && result.failed() == 0)
+                        return componentClient
+                                .forKeyValueEntity(date.toString())
+                                .method(MissedSweepEntity::recordDoctor)
+                                .invokeAsync(result);
+
+                    failDoctor(failedDoctors, date, doctorId,
+                            error == null ? result.failed() + " appointments could not be checked" : error.getMessage());
+                    // the schedule could not be read, so nothing was checked
+                    var partial = error == null ? result : new MissedSweep.DoctorResult(doctorId, 0, 0, 0);
+                    return componentClient
+                            .forKeyValueEntity(date.toString())
+                            .method(MissedSweepEntity::recordFailure)
+                            .invokeAsync(partial);
+                })
+                .thenCompose(Function.identity())
+                .exceptionally(error -> {
+                    failDoctor(failedDoctors, date, doctorId, error.getMessage());
+                    return Done.getInstance();
+                })
+                .thenCompose(__ -> nextDoctor(queue, date, failedDoctors))
+                .toCompletableFuture();
+    }
+
+    private static void failDoctor(Set<String> failedDoctors, LocalDate date, String doctorId, String reason) {
+        failedDoctors.add(doctorId);
+        log.warn().addKeyValue("date", date)
+                .addKeyValue("doctorId", doctorId)
+                .addKeyValue("reason", reason)
+                .log("Failed to sweep doctor");
+    }
+
+    private CompletionStage<MissedSweep.DoctorResult> sweepDoctor(String doctorId, LocalDate date) {
+        return componentClient
+                .forKeyValueEntity(new Schedule.ScheduleId(doctorId, date).toString())
+                .method(ScheduleEntity::getSchedule)
+                .invokeAsync()
+                .thenCompose(schedule -> {
+                    var appointmentIds = schedule.map(Schedule::timeSlots).orElse(List.of()).stream()
+                            .map(Schedule.TimeSchedule::appointmentId)
+                            .toList();
+                    CompletionStage<MissedSweep.DoctorResult> result =
+                            CompletableFuture.completedFuture(new MissedSweep.DoctorResult(doctorId, 0, 0, 0));
+                    // appointments of one doctor are handled one after the other, the parallelism is across doctors
+                    for (var appointmentId : appointmentIds)
+                        result = result.thenCompose(counts -> markIfStillScheduled(appointmentId, date)
+                                .handle((marked, error) -> new MissedSweep.DoctorResult(doctorId,
+                                        counts.checked() + 1,
+                                        counts.marked() + (error == null && marked ? 1 : 0),
+                                        counts.failed() + (error == null ? 0 : 1))));
+                    // a doctor with a failed appointment is recorded as failed, not checkpointed,
+                    // so the retried run sweeps it again
+                    return result;
+                });
+    }
+
+    private CompletionStage<Boolean> markIfStillScheduled(String appointmentId, LocalDate date) {
+        return componentClient
+                .forEventSourcedEntity(appointmentId)
+                .method(AppointmentEntity::getAppointment)
+                .invokeAsync()
+                .thenCompose(appointment -> {
+                    if (!isStillScheduled(appointment, date))
+                        return CompletableFuture.completedFuture(false);
+                    return componentClient
+                            .forEventSourcedEntity(appointmentId)
+                            .method(AppointmentEntity::markAsMissed)
+                            .invokeAsync()
+                            .thenApply(__ -> true);
+                });
+    }
+
+    private static boolean isStillScheduled(Optional<Appointment> appointment, LocalDate date) {
+        return appointment
+                .filter(a -> a.status() == Appointment.Status.SCHEDULED)
+                .filter(a -> a.dateTime().toLocalDate().equals(date))
+                .isPresent();
+    }
+}
@@ -0,0 +1,78 @@
+package com.clinic.application;
+
+import akka.Done;
+import akka.javasdk.annotations.Component;
+import akka.javasdk.keyvalueentity.KeyValueEntity;
+import com.clinic.domain.MissedSweep;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Checkpoint of the missed appointments sweep, keyed by the swept date.
+ */
+@Component(id = "missed-sweep")
+public class MissedSweepEntity extends KeyValueEntity<MissedSweep> {
+
+    public record StartSweepCmd(LocalDate date, Instant now) {}
+
+    /**
+     * Starts the sweep, or returns the checkpoint of a sweep that was already started.
+     */
+    public Effect<MissedSweep> start(StartSweepCmd cmd) {
+        if (currentState() != null)
+            return effects().reply(currentState());
+
+        var sweep = MissedSweep.start(cmd.date(), cmd.now());
+        return effects()
+                .updateState(sweep)
+                .thenReply(sweep);
+    }
+
+    public Effect<Done> recordDoctor(MissedSweep.DoctorResult result) {
+        if (currentState() == null)
+            return effects().error("Sweep has not been started");
+        if (currentState().hasSwept(result.doctorId()))
+            return effects().reply(Done.getInstance());
+        return effects()
+                .updateState(currentState().record(result))
+                .thenReply(Done.getInstance());
+    }
+
+    public Effect<Done> recordFailure(MissedSweep.DoctorResult result) {
+        if (currentState() == null)
+            return effects().error("Sweep has not been started");
+        if (currentState().hasSwept(result.doctorId()))
+            return effects().reply(Done.getInstance());
+        return effects()
+                .updateState(currentState().recordFailure(result))
+                .thenReply(Done.getInstance());
+    }
+
+    public Effect<MissedSweep> failRun() {
+        if (currentState() == null)
+            return effects().error("Sweep has not been started");
+
+        var failed = currentState().failRun();
+        return effects()
+                .updateState(failed)
+                .thenReply(failed);
+    }
+
+    public Effect<MissedSweep> finish(Instant now) {
+        if (currentState() == null)
+            return effects().error("Sweep has not been started");
+        if (currentState().finishedAt().isPresent())
+            return effects().reply(currentState());
+
+        var finished = currentState().finish(now);
+        return effects()
+                .updateState(finished)
+                .thenReply(finished);
+    }
+
+    public Effect<Optional<MissedSweep>> getSweep() {
+        return effects().reply(Optional.ofNullable(currentState()));
+    }
+}
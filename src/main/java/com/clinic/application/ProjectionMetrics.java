@@ -0,0 +1,80 @@
+package com.clinic.application;
+
+import akka.javasdk.view.UpdateContext;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Node-local counters of view updates. Each table updater records every update with the time the source change
+ * happened (the CloudEvent time), lag percentiles are computed over the last {@value #SAMPLES} updates of each table.
+ */
+public final class ProjectionMetrics {
+
+    private static final int SAMPLES = 1024;
+    private static final Map<String, TableMetrics> TABLES = new ConcurrentHashMap<>();
+
+    private ProjectionMetrics() {
+    }
+
+    public record TableSnapshot(String updater, long updates, Map<String, Long> updatesByType,
+                                Optional<Long> p50LagMs, Optional<Long> p99LagMs, Optional<Long> maxLagMs) {
+    }
+
+    static void record(Class<?> updater, Object update, UpdateContext context) {
+        var metrics = TABLES.computeIfAbsent(name(updater), name -> new TableMetrics());
+        metrics.updatesByType.computeIfAbsent(update.getClass().getSimpleName(), type -> new LongAdder()).increment();
+        context.metadata().asCloudEvent().time()
+                .ifPresent(time -> metrics.addLag(Math.max(0, Instant.now().toEpochMilli() - time.toInstant().toEpochMilli())));
+    }
+
+    public static List<TableSnapshot> snapshot() {
+        return TABLES.entrySet().stream()
+                .map(entry -> entry.getValue().snapshot(entry.getKey()))
+                .sorted(Comparator.comparing(TableSnapshot::updater))
+                .toList();
+    }
+
+    private static String name(Class<?> updater) {
+        var view = updater.getEnclosingClass();
+        return view == null ? updater.getSimpleName() : view.getSimpleName() + "." + updater.getSimpleName();
+    }
+
+    private static final class TableMetrics {
+        private final Map<String, LongAdder> updatesByType = new ConcurrentHashMap<>();
+        private final AtomicLongArray lagsMs = new AtomicLongArray(SAMPLES);
+        private final AtomicLong lagCount = new AtomicLong();
+
+        void addLag(long lagMs) {
+            lagsMs.set((int) (lagCount.getAndIncrement() % SAMPLES), lagMs);
+        }
+
+        TableSnapshot snapshot(String updater) {
+            var byType = new TreeMap<String, Long>();
+            updatesByType.forEach((type, count) -> byType.put(type, count.sum()));
+            var updates = byType.values().stream().mapToLong(Long::longValue).sum();
+
+            var lags = new long[(int) Math.min(lagCount.get(), SAMPLES)];
+            for (int i = 0; i < lags.length; i++)
+                lags[i] = lagsMs.get(i);
+            Arrays.sort(lags);
+            return new TableSnapshot(updater, updates, byType, percentile(lags, 50), percentile(lags, 99),
+                    lags.length == 0 ? Optional.empty() : Optional.of(lags[lags.length - 1]));
+        }
+
+        private static Optional<Long> percentile(long[] sorted, int percentile) {
+            if (sorted.length == 0)
+                return Optional.empty();
+            return Optional.of(sorted[(int) Math.ceil(percentile / 100.0 * sorted.length) - 1]);
+        }
+    }
+}
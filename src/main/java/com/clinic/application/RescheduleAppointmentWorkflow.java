@@ -11,23 +11,42 @@ import dev.langchain4j.exception.HttpException;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Optional;
 
 @Component(id = "reschedule-appointment")
 public class RescheduleAppointmentWorkflow extends Workflow<RescheduleAppointmentState> {
 
     private static final Duration DEFAULT_DURATION = Duration.ofMinutes(30);
+    private static final StructuredLog log = StructuredLog.of(RescheduleAppointmentWorkflow.class);
     private final ComponentClient componentClient;
 
     public RescheduleAppointmentWorkflow(ComponentClient componentClient) {
         this.componentClient = componentClient;
     }
 
+    /**
+     * @param deletionWorkflowId the schedule deletion to report the result to, if it started this reschedule
+     */
     public record RescheduleAppointmentCommand(LocalDateTime newDateTime,
-                                               String newDoctorId
-    ) {}
+                                               String newDoctorId,
+                                               Optional<String> deletionWorkflowId
+    ) {
+        public RescheduleAppointmentCommand {
+            if (deletionWorkflowId == null)
+                deletionWorkflowId = Optional.empty();
+        }
+
+        public RescheduleAppointmentCommand(LocalDateTime newDateTime, String newDoctorId) {
+            this(newDateTime, newDoctorId, Optional.empty());
+        }
+
+        public RescheduleAppointmentCommand reportingTo(String deletionWorkflowId) {
+            return new RescheduleAppointmentCommand(newDateTime, newDoctorId, Optional.of(deletionWorkflowId));
+        }
+    }
 
     public Effect<Done> startRescheduleAppointment(RescheduleAppointmentCommand cmd) {
-        System.out.println("---- Starting Reschedule Appointment Workflow ----");
+        log.debug().addKeyValue("workflowId", commandContext().workflowId()).log("Rescheduling appointment");
 
         if (currentState() != null) {
             return  effects().error("Appointment does not exist");
@@ -44,7 +63,9 @@ public class RescheduleAppointmentWorkflow extends Workflow<RescheduleAppointmen
                 cmd.newDateTime(),
                 cmd.newDoctorId(),
                 appointment.patientId(),
-                appointment.issue()
+                appointment.issue(),
+                RescheduleAppointmentState.Status.STARTED,
+                cmd.deletionWorkflowId()
         );
 
         return effects()
@@ -53,8 +74,12 @@ public class RescheduleAppointmentWorkflow extends Workflow<RescheduleAppointmen
                 .thenReply(Done.getInstance());
     }
 
+    public Effect<Optional<RescheduleAppointmentState>> getReschedule() {
+        return effects().reply(Optional.ofNullable(currentState()));
+    }
+
     public StepEffect createNewTimeslot() {
-        System.out.println("---- Creating New Timeslot ---");
+        var started = System.nanoTime();
 
         var scheduleId = new Schedule.ScheduleId(
                 currentState().newDoctorId(),
@@ -70,29 +95,38 @@ public class RescheduleAppointmentWorkflow extends Workflow<RescheduleAppointmen
                             DEFAULT_DURATION,
                             commandContext().workflowId()));
         } catch (Exception e) {
-            System.out.println("Error creating New Timeslot");
+            log.warn().addKeyValue("workflowId", commandContext().workflowId())
+                    .addKeyValue("scheduleId", scheduleId)
+                    .addKeyValue("reason", e.getMessage())
+                    .log("Could not book the new time slot");
             return stepEffects().thenTransitionTo(RescheduleAppointmentWorkflow::nothingHappens);
         }
 
+        log.step(commandContext().workflowId(), "createNewTimeslot", started);
         return stepEffects().thenTransitionTo(RescheduleAppointmentWorkflow::updateAppointment);
     }
 
     public StepEffect updateAppointment() {
-        System.out.println("---- Updating Appointment ---");
+        var started = System.nanoTime();
         try {
             componentClient
                     .forEventSourcedEntity(commandContext().workflowId())
                     .method(AppointmentEntity::reschedule)
                     .invoke(new AppointmentEntity.RescheduleCmd(currentState().newDatetime(), currentState().newDoctorId()));
         } catch (Exception e) {
-            System.out.println("Error updating Appointment");
+            log.warn().addKeyValue("workflowId", commandContext().workflowId())
+                    .addKeyValue("reason", e.getMessage())
+                    .log("Could not update the appointment, releasing the new time slot");
             return stepEffects().thenTransitionTo(RescheduleAppointmentWorkflow::deleteNewTimeslot);
         }
-        return stepEffects().thenTransitionTo(RescheduleAppointmentWorkflow::deleteOldTimeslot);
+        log.step(commandContext().workflowId(), "updateAppointment", started);
+        return stepEffects()
+                .updateState(currentState().withStatus(RescheduleAppointmentState.Status.RESCHEDULED))
+                .thenTransitionTo(RescheduleAppointmentWorkflow::deleteOldTimeslot);
     }
 
     public StepEffect deleteNewTimeslot() {
-        System.out.println("---- Deleting New Timeslot ---");
+        var started = System.nanoTime();
         var newScheduleId = new Schedule.ScheduleId(currentState().newDoctorId(), currentState().newDatetime().toLocalDate());
 
         componentClient
@@ -103,11 +137,14 @@ public class RescheduleAppointmentWorkflow extends Workflow<RescheduleAppointmen
                       currentState().newDatetime().toLocalTime()
                 ));
 
-        return stepEffects().thenEnd();
+        log.step(commandContext().workflowId(), "deleteNewTimeslot", started);
+        return stepEffects()
+                .updateState(currentState().withStatus(RescheduleAppointmentState.Status.UNCHANGED))
+                .thenTransitionTo(RescheduleAppointmentWorkflow::reportResult);
     }
 
     public StepEffect deleteOldTimeslot() {
-        System.out.println("---- Deleting Old Timeslot ---");
+        var started = System.nanoTime();
 
         var oldScheduleId = new Schedule.ScheduleId(currentState().oldDoctorId(), currentState().oldDateTime().toLocalDate());
 
@@ -119,11 +156,25 @@ public class RescheduleAppointmentWorkflow extends Workflow<RescheduleAppointmen
                         currentState().oldDateTime().toLocalTime()
                 ));
 
-        return stepEffects().thenEnd();
+        log.step(commandContext().workflowId(), "deleteOldTimeslot", started);
+        return stepEffects().thenTransitionTo(RescheduleAppointmentWorkflow::reportResult);
     }
 
     public StepEffect nothingHappens() {
-        System.out.println("---- Nothing Happens ---");
+        log.info().addKeyValue("workflowId", commandContext().workflowId()).log("Appointment left unchanged");
+        return stepEffects()
+                .updateState(currentState().withStatus(RescheduleAppointmentState.Status.UNCHANGED))
+                .thenTransitionTo(RescheduleAppointmentWorkflow::reportResult);
+    }
+
+    /**
+     * Tells the schedule deletion that started this reschedule how it ended, so it can take the next appointment.
+     */
+    public StepEffect reportResult() {
+        currentState().deletionWorkflowId().ifPresent(deletionWorkflowId -> componentClient
+                .forWorkflow(deletionWorkflowId)
+                .method(DeleteScheduleWorkflow::rescheduleFinished)
+                .invoke(new DeleteScheduleWorkflow.RescheduleFinished(commandContext().workflowId(), currentState().status())));
         return stepEffects().thenEnd();
     }
 
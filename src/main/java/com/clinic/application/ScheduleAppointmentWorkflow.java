@@ -104,6 +104,7 @@ import java.time.LocalDateTime;
 public class ScheduleAppointmentWorkflow extends Workflow<ScheduleAppointmentState> {
 
     private static final Duration DEFAULT_DURATION = Duration.ofMinutes(30);
+    private static final StructuredLog log = StructuredLog.of(ScheduleAppointmentWorkflow.class);
 
     private final ComponentClient componentClient;
 
@@ -114,7 +115,7 @@ public class ScheduleAppointmentWorkflow extends Workflow<ScheduleAppointmentSta
     public record ScheduleAppointmentCommand(LocalDateTime dateTime, String doctorId, String patientId, String issue) {}
 
     public Effect<Done> schedule(ScheduleAppointmentCommand cmd) {
-        System.out.println("## schedule");
+        log.debug().addKeyValue("workflowId", commandContext().workflowId()).log("Scheduling appointment");
         if (currentState() != null)
             return effects().error("Appointment already exists");
 
@@ -130,18 +131,19 @@ public class ScheduleAppointmentWorkflow extends Workflow<ScheduleAppointmentSta
     }
 
     public StepEffect createAppointment() {
-        System.out.println("## createAppointment");
+        var started = System.nanoTime();
         componentClient
                 .forEventSourcedEntity(commandContext().workflowId())
                 .method(AppointmentEntity::createAppointment)
                 .invoke(new AppointmentEntity.CreateAppointmentCmd(currentState().dateTime(), currentState().doctorId(), currentState().patientId(), currentState().issue()));
 
+        log.step(commandContext().workflowId(), "createAppointment", started);
         return stepEffects()
                 .thenTransitionTo(ScheduleAppointmentWorkflow::scheduleTimeSlot);
     }
 
     public StepEffect scheduleTimeSlot() {
-        System.out.println("## scheduleTimeSlot");
+        var started = System.nanoTime();
         var scheduleId = new Schedule.ScheduleId(currentState().doctorId(), currentState().dateTime().toLocalDate());
         try {
             componentClient
@@ -149,30 +151,37 @@ public class ScheduleAppointmentWorkflow extends Workflow<ScheduleAppointmentSta
                     .method(ScheduleEntity::scheduleAppointment)
                     .invoke(new ScheduleEntity.ScheduleAppointmentData(currentState().dateTime().toLocalTime(), DEFAULT_DURATION, commandContext().workflowId()));
         } catch (IllegalArgumentException e) {
+            log.info().addKeyValue("workflowId", commandContext().workflowId())
+                    .addKeyValue("scheduleId", scheduleId)
+                    .addKeyValue("reason", e.getMessage())
+                    .log("Time slot rejected, cancelling appointment");
             return stepEffects().thenTransitionTo(ScheduleAppointmentWorkflow::cancelAppointment);
         }
 
+        log.step(commandContext().workflowId(), "scheduleTimeSlot", started);
         return stepEffects()
                 .thenTransitionTo(ScheduleAppointmentWorkflow::markAppointmentAsScheduled);
     }
 
     public StepEffect markAppointmentAsScheduled() {
-        System.out.println("## markAppointmentAsScheduled");
+        var started = System.nanoTime();
         componentClient
                 .forEventSourcedEntity(commandContext().workflowId())
                 .method(AppointmentEntity::schedule)
                 .invoke();
 
+        log.step(commandContext().workflowId(), "markAppointmentAsScheduled", started);
         return stepEffects().thenEnd();
     }
 
     public StepEffect cancelAppointment() {
-        System.out.println("## cancelAppointment");
+        var started = System.nanoTime();
         componentClient
                 .forEventSourcedEntity(commandContext().workflowId())
                 .method(AppointmentEntity::cancel)
                 .invoke();
 
+        log.step(commandContext().workflowId(), "cancelAppointment", started);
         return stepEffects().thenEnd();
     }
 
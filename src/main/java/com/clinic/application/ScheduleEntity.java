@@ -5,14 +5,16 @@ import akka.javasdk.annotations.Component;
 import akka.javasdk.keyvalueentity.KeyValueEntity;
 import akka.javasdk.keyvalueentity.KeyValueEntityContext;
 import com.clinic.domain.Schedule;
+import com.clinic.domain.StoredSchedule;
 
 import java.time.Duration;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 @Component(id = "schedule")
-public class ScheduleEntity extends KeyValueEntity<Schedule> {
+public class ScheduleEntity extends KeyValueEntity<StoredSchedule> {
     private Schedule.ScheduleId entityId;
 
     public ScheduleEntity(KeyValueEntityContext context) {
@@ -25,7 +27,7 @@ public class ScheduleEntity extends KeyValueEntity<Schedule> {
 
         var schedule = new Schedule(entityId, workingHours);
         return effects()
-                .updateState(schedule)
+                .updateState(StoredSchedule.of(schedule))
                 .thenReply(Done.getInstance());
     }
 
@@ -37,14 +39,53 @@ public class ScheduleEntity extends KeyValueEntity<Schedule> {
             return effects().error("Working hours aren't defined for the selected date");
 
         try {
-            var newState = currentState()
+            var newState = schedule()
                     .scheduleAppointment(data.startTime, data.duration, data.appointmentId);
-            return effects().updateState(newState).thenReply(Done.getInstance());
+            return effects().updateState(StoredSchedule.of(newState)).thenReply(Done.getInstance());
         } catch (IllegalArgumentException e) {
             return effects().error(e.getMessage());
         }
     }
 
+    /**
+     * @param allOrNothing when true a single rejected appointment rejects the whole batch,
+     *                     otherwise every appointment that fits is booked
+     */
+    public record ScheduleAppointmentsData(List<ScheduleAppointmentData> appointments, boolean allOrNothing) {
+    }
+
+    public record BookingResult(String appointmentId, boolean booked, Optional<String> error) {
+    }
+
+    public Effect<List<BookingResult>> scheduleAppointments(ScheduleAppointmentsData data) {
+        if (currentState() == null)
+            return effects().error("Working hours aren't defined for the selected date");
+
+        var current = schedule();
+        var newState = current;
+        var results = new ArrayList<BookingResult>(data.appointments().size());
+        var rejected = false;
+        for (var appointment : data.appointments()) {
+            try {
+                newState = newState.scheduleAppointment(appointment.startTime, appointment.duration, appointment.appointmentId);
+                results.add(new BookingResult(appointment.appointmentId, true, Optional.empty()));
+            } catch (IllegalArgumentException e) {
+                results.add(new BookingResult(appointment.appointmentId, false, Optional.of(e.getMessage())));
+                rejected = true;
+            }
+        }
+
+        if (rejected && data.allOrNothing()) {
+            var notBooked = results.stream()
+                    .map(result -> result.booked() ? new BookingResult(result.appointmentId(), false, Optional.of("Batch rejected")) : result)
+                    .toList();
+            return effects().reply(notBooked);
+        }
+        if (newState == current)
+            return effects().reply(results);
+        return effects().updateState(StoredSchedule.of(newState)).thenReply(results);
+    }
+
     public record RemoveAppointmentData(String appointmentId, LocalTime startTime) {}
 
     public Effect<Done> removeTimeSlot(RemoveAppointmentData data) {
@@ -52,9 +93,9 @@ public class ScheduleEntity extends KeyValueEntity<Schedule> {
             return effects().error("Working hours aren't defined for the selected date");
 
         try {
-            var newState = currentState().
-                    removeTimeSlot(data.appointmentId,  data.startTime);
-            return effects().updateState(newState).thenReply(Done.getInstance());
+            var newState = schedule()
+                    .removeTimeSlot(data.appointmentId,  data.startTime);
+            return effects().updateState(StoredSchedule.of(newState)).thenReply(Done.getInstance());
         } catch (IllegalArgumentException e) {
             return effects().error(e.getMessage());
         }
@@ -64,19 +105,20 @@ public class ScheduleEntity extends KeyValueEntity<Schedule> {
         if (currentState() == null) {
             return effects().error("Schedule not found");
         }
-        if (currentState().status() == Schedule.Status.BLOCKED) {
-            return effects().reply(currentState().timeSlots().stream()
+        var schedule = schedule();
+        if (schedule.status() == Schedule.Status.BLOCKED) {
+            return effects().reply(schedule.timeSlots().stream()
                     .map(Schedule.TimeSchedule::appointmentId)
                     .toList());
         }
 
-        var newSchedule = currentState().block();
-        var appointmentIds = currentState().timeSlots().stream()
+        var newSchedule = schedule.block();
+        var appointmentIds = schedule.timeSlots().stream()
                 .map(Schedule.TimeSchedule::appointmentId)
                 .toList();
 
         return effects()
-                .updateState(newSchedule)
+                .updateState(StoredSchedule.of(newSchedule))
                 .thenReply(appointmentIds);
     }
 
@@ -85,13 +127,37 @@ public class ScheduleEntity extends KeyValueEntity<Schedule> {
             return effects().error("Schedule not found");
         }
 
-        var newSchedule = currentState().delete();
+        var newSchedule = schedule().delete();
         return effects()
-                .updateState(newSchedule)
+                .updateState(StoredSchedule.of(newSchedule))
                 .thenReply(Done.getInstance());
     }
 
+    public record FindAvailableSlotsQuery(Duration duration, int limit, Optional<LocalTime> notBefore) {}
+
+    public Effect<List<Schedule.FreeSlot>> findAvailableSlots(FindAvailableSlotsQuery query) {
+        if (query.limit() <= 0)
+            return effects().error("Limit must be positive");
+        if (currentState() == null || currentState().status() != Schedule.Status.ACTIVE)
+            return effects().reply(List.of());
+
+        var notBefore = query.notBefore().orElse(currentState().workingHours().startTime());
+        return effects().reply(schedule().freeSlots(query.duration(), notBefore, query.limit()));
+    }
+
+    public record AvailabilityQuery(LocalTime startTime, Duration duration) {}
+
+    public Effect<Boolean> isAvailable(AvailabilityQuery query) {
+        if (currentState() == null || currentState().status() != Schedule.Status.ACTIVE)
+            return effects().reply(false);
+        return effects().reply(schedule().isFree(query.startTime(), query.duration()));
+    }
+
     public Effect<Optional<Schedule>> getSchedule() {
-        return effects().reply(Optional.ofNullable(currentState()));
+        return effects().reply(Optional.ofNullable(currentState()).map(StoredSchedule::toSchedule));
+    }
+
+    private Schedule schedule() {
+        return currentState().toSchedule();
     }
 }
@@ -7,41 +7,69 @@ import akka.javasdk.annotations.Table;
 import akka.javasdk.view.TableUpdater;
 import akka.javasdk.view.View;
 import com.clinic.domain.Schedule;
+import com.clinic.domain.StoredSchedule;
 
 import java.util.List;
 
-@Component(id = "schedules-by-doctor")
+// rows gained the schedule status, the id changed so the view is rebuilt with it
+@Component(id = "schedules-by-doctor-v2")
 public class SchedulesByDoctorView extends View {
 
-    public record ScheduleRow(String doctorId, String date, List<TimeSlot> slots) {
+    public record ScheduleRow(String doctorId, String date, Schedule.Status status, List<TimeSlot> slots) {
         public record TimeSlot(String startTime, String endTime) {}
     }
 
     @Table("schedules")
     @Consume.FromKeyValueEntity(ScheduleEntity.class)
     public static class Updater extends TableUpdater<ScheduleRow> {
-        public Effect<ScheduleRow> onChange(Schedule schedule) {
+        public Effect<ScheduleRow> onChange(StoredSchedule stored) {
+            var schedule = stored.toSchedule();
+            ProjectionMetrics.record(getClass(), schedule, updateContext());
             var slots = schedule.timeSlots().stream().map(slot -> new ScheduleRow.TimeSlot(slot.startTime().toString(), slot.endTime().toString())).toList();
-            var row = new ScheduleRow(schedule.id().doctorId(), schedule.id().date().toString(), slots);
+            var row = new ScheduleRow(schedule.id().doctorId(), schedule.id().date().toString(), schedule.status(), slots);
             return effects().updateRow(row);
         }
     }
 
-    public record ScheduleRows(List<ScheduleRow> schedules){}
+    /**
+     * @param fromDate inclusive
+     * @param toDate inclusive
+     * @param pageToken empty for the first page, then the {@code nextPageToken} of the previous page
+     */
+    public record FindSchedules(String doctorId, String fromDate, String toDate, List<Schedule.Status> statuses,
+                                String pageToken, int pageSize) {}
 
-    @Query("SELECT * as schedules FROM schedules WHERE doctorId = :doctorId")
-    public QueryEffect<ScheduleRows> getSchedules(String doctorId) {
+    public record ScheduleRows(List<ScheduleRow> schedules, String nextPageToken, boolean hasMore){}
+
+    @Query("""
+            SELECT * AS schedules, next_page_token() AS nextPageToken, has_more() AS hasMore
+            FROM schedules
+            WHERE doctorId = :doctorId AND date >= :fromDate AND date <= :toDate AND status = ANY(:statuses)
+            ORDER BY date
+            OFFSET page_token_offset(:pageToken) LIMIT :pageSize
+            """)
+    public QueryEffect<ScheduleRows> getSchedules(FindSchedules query) {
         return queryResult();
     }
 
 
-    public record ScheduleSummary(String doctorId, String date){}
+    public record ScheduleSummary(String doctorId, String date, Schedule.Status status){}
     public record ScheduleSummaries(List<ScheduleSummary> schedules){}
+    public record ScheduleSummaryPage(List<ScheduleSummary> schedules, String nextPageToken, boolean hasMore){}
 
-    public record FindScheduleSummary(String doctorId, String fromDate, String toDate){}
+    @Query("""
+            SELECT (doctorId, date, status) AS schedules, next_page_token() AS nextPageToken, has_more() AS hasMore
+            FROM schedules
+            WHERE doctorId = :doctorId AND date >= :fromDate AND date <= :toDate AND status = ANY(:statuses)
+            ORDER BY date
+            OFFSET page_token_offset(:pageToken) LIMIT :pageSize
+            """)
+    public QueryEffect<ScheduleSummaryPage> getSummaries(FindSchedules query){
+        return queryResult();
+    }
 
-    @Query("SELECT (doctorId, date) AS schedules FROM schedules WHERE doctorId = :doctorId AND date > :fromDate AND date < :toDate")
-    public QueryEffect<ScheduleSummaries> getSummaries(FindScheduleSummary query){
+    @Query("SELECT (doctorId, date, status) AS schedules FROM schedules WHERE date = :date")
+    public QueryEffect<ScheduleSummaries> getSummariesForDate(String date){
         return queryResult();
     }
 }
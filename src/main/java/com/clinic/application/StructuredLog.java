@@ -0,0 +1,69 @@
+package com.clinic.application;
+
+import com.typesafe.config.Config;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.slf4j.spi.NOPLoggingEventBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Level-gated structured logging for entity and workflow hot paths.
+ * Details are attached as key/values on the fluent builder, so nothing is formatted unless an event is emitted,
+ * and a disabled level costs a level check.
+ * <p>
+ * When debug is off, one in {@code clinic.logging.debug-sample-rate} debug events is still emitted at debug with a
+ * {@code sampleRate} field, through the {@code sampled.<owner class>} logger, which keeps a trickle of detail in
+ * production. A rate of 0, or turning the {@code sampled} loggers off, disables sampling. The rate is set by
+ * {@link #configure(Config)} when the service starts; entities cannot have the config injected.
+ */
+public final class StructuredLog {
+
+    private static volatile int sampleRate;
+
+    private final Logger log;
+    private final Logger sampledLog;
+    private final AtomicLong debugCalls = new AtomicLong();
+
+    private StructuredLog(Logger log, Logger sampledLog) {
+        this.log = log;
+        this.sampledLog = sampledLog;
+    }
+
+    static StructuredLog of(Class<?> owner) {
+        return new StructuredLog(LoggerFactory.getLogger(owner), LoggerFactory.getLogger("sampled." + owner.getName()));
+    }
+
+    public static void configure(Config config) {
+        sampleRate = config.getInt("clinic.logging.debug-sample-rate");
+    }
+
+    LoggingEventBuilder debug() {
+        if (log.isDebugEnabled())
+            return log.atDebug();
+        var rate = sampleRate;
+        if (rate > 0 && sampledLog.isDebugEnabled() && debugCalls.incrementAndGet() % rate == 0)
+            return sampledLog.atDebug().addKeyValue("sampleRate", rate);
+        return NOPLoggingEventBuilder.singleton();
+    }
+
+    LoggingEventBuilder info() {
+        return log.atInfo();
+    }
+
+    LoggingEventBuilder warn() {
+        return log.atWarn();
+    }
+
+    /**
+     * Logs the end of a workflow step started at {@code startedNanos} (from {@link System#nanoTime()}).
+     */
+    void step(String workflowId, String step, long startedNanos) {
+        debug().addKeyValue("workflowId", workflowId)
+                .addKeyValue("step", step)
+                .addKeyValue("durationMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos))
+                .log("Workflow step finished");
+    }
+}
@@ -0,0 +1,66 @@
+package com.clinic.application;
+
+import akka.javasdk.annotations.Component;
+import akka.javasdk.annotations.Consume;
+import akka.javasdk.client.ComponentClient;
+import akka.javasdk.consumer.Consumer;
+import com.clinic.domain.Doctor;
+import com.clinic.domain.EntityKeys;
+import com.clinic.domain.StoredSchedule;
+import com.clinic.domain.Utilization;
+
+/**
+ * Feeds every schedule change into the weekly totals of its doctor and of each of the doctor's specialities.
+ * Entities keep the last contribution of each day, so redelivered changes are harmless. The doctor totals also keep
+ * the specialities each day was counted under, and a day is moved off the specialities the doctor no longer has.
+ */
+@Component(id = "utilization-consumer")
+@Consume.FromKeyValueEntity(ScheduleEntity.class)
+public class UtilizationConsumer extends Consumer {
+
+    private final ComponentClient componentClient;
+    private final DoctorCache doctorCache;
+
+    public UtilizationConsumer(ComponentClient componentClient, DoctorCache doctorCache) {
+        this.componentClient = componentClient;
+        this.doctorCache = doctorCache;
+    }
+
+    public Effect onChange(StoredSchedule stored) {
+        var schedule = stored.toSchedule();
+        var scheduleId = schedule.id().toString();
+        var doctorId = schedule.id().doctorId();
+        var week = Utilization.weekOf(schedule.id().date());
+        var day = Utilization.Day.of(schedule);
+
+        // failing the change has it redelivered, skipping it would leave the speciality totals without this day
+        var doctor = doctorCache.getDoctor(doctorId)
+                .orElseThrow(() -> new IllegalStateException("Doctor of schedule " + scheduleId + " not found"));
+        var specialityKeys = doctor.specialities().stream()
+                .map(Doctor::specialityKey)
+                .distinct()
+                .toList();
+
+        var doctorUtilizationId = EntityKeys.doctorUtilizationId(doctorId, week);
+        var previousKeys = componentClient
+                .forKeyValueEntity(doctorUtilizationId)
+                .method(UtilizationEntity::getSpecialityKeys)
+                .invoke(scheduleId);
+        previousKeys.stream()
+                .filter(key -> !specialityKeys.contains(key))
+                .forEach(key -> record(EntityKeys.specialityUtilizationId(key, week),
+                        new UtilizationEntity.RecordDay(scheduleId, Utilization.Day.EMPTY)));
+        specialityKeys.forEach(key -> record(EntityKeys.specialityUtilizationId(key, week),
+                new UtilizationEntity.RecordDay(scheduleId, day)));
+        // recorded last, so a change that fails halfway is redelivered with the previous specialities still known
+        record(doctorUtilizationId, new UtilizationEntity.RecordDay(scheduleId, day, specialityKeys));
+        return effects().done();
+    }
+
+    private void record(String utilizationId, UtilizationEntity.RecordDay cmd) {
+        componentClient
+                .forKeyValueEntity(utilizationId)
+                .method(UtilizationEntity::recordDay)
+                .invoke(cmd);
+    }
+}
@@ -0,0 +1,51 @@
+package com.clinic.application;
+
+import akka.Done;
+import akka.javasdk.annotations.Component;
+import akka.javasdk.keyvalueentity.KeyValueEntity;
+import com.clinic.domain.Utilization;
+
+import java.util.List;
+
+/**
+ * Utilization totals of one doctor or one speciality over an ISO week, see {@link com.clinic.domain.EntityKeys}.
+ */
+@Component(id = "utilization")
+public class UtilizationEntity extends KeyValueEntity<Utilization> {
+
+    @Override
+    public Utilization emptyState() {
+        return Utilization.empty();
+    }
+
+    /**
+     * @param specialityKeys specialities the day is counted under, only sent to doctor totals
+     */
+    public record RecordDay(String scheduleId, Utilization.Day day, List<String> specialityKeys) {
+        public RecordDay {
+            if (specialityKeys == null)
+                specialityKeys = List.of();
+        }
+
+        public RecordDay(String scheduleId, Utilization.Day day) {
+            this(scheduleId, day, List.of());
+        }
+    }
+
+    public Effect<Done> recordDay(RecordDay cmd) {
+        var updated = currentState().record(cmd.scheduleId(), cmd.day(), cmd.specialityKeys());
+        if (updated == currentState())
+            return effects().reply(Done.getInstance());
+        return effects()
+                .updateState(updated)
+                .thenReply(Done.getInstance());
+    }
+
+    public Effect<List<String>> getSpecialityKeys(String scheduleId) {
+        return effects().reply(currentState().specialityKeysOf(scheduleId));
+    }
+
+    public Effect<Utilization.Day> getTotal() {
+        return effects().reply(currentState().total());
+    }
+}
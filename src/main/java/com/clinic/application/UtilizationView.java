@@ -0,0 +1,55 @@
+package com.clinic.application;
+
+import akka.javasdk.annotations.Component;
+import akka.javasdk.annotations.Consume;
+import akka.javasdk.annotations.Query;
+import akka.javasdk.annotations.Table;
+import akka.javasdk.view.TableUpdater;
+import akka.javasdk.view.View;
+import com.clinic.domain.Schedule;
+import com.clinic.domain.StoredSchedule;
+import com.clinic.domain.Utilization;
+
+import java.util.List;
+
+/**
+ * Per doctor per day totals, the weekly roll-ups are kept in {@link UtilizationEntity}.
+ */
+@Component(id = "utilization-by-day")
+public class UtilizationView extends View {
+
+    public record DayRow(String doctorId, String date, String week, int bookedMinutes, int workingMinutes, int slots) {}
+
+    @Table("daily_utilization")
+    @Consume.FromKeyValueEntity(ScheduleEntity.class)
+    public static class Updater extends TableUpdater<DayRow> {
+        public Effect<DayRow> onChange(StoredSchedule stored) {
+            var schedule = stored.toSchedule();
+            ProjectionMetrics.record(getClass(), schedule, updateContext());
+            if (schedule.status() == Schedule.Status.DELETED)
+                return effects().deleteRow();
+
+            var day = Utilization.Day.of(schedule);
+            var row = new DayRow(schedule.id().doctorId(), schedule.id().date().toString(), Utilization.weekOf(schedule.id().date()),
+                    day.bookedMinutes(), day.workingMinutes(), day.slots());
+            return effects().updateRow(row);
+        }
+    }
+
+    public record DayRows(List<DayRow> days) {}
+
+    /**
+     * @param fromDate inclusive
+     * @param toDate inclusive
+     */
+    public record FindDays(String doctorId, String fromDate, String toDate) {}
+
+    @Query("""
+            SELECT * AS days FROM daily_utilization
+            WHERE doctorId = :doctorId AND date >= :fromDate AND date <= :toDate
+            ORDER BY date
+            """)
+    public QueryEffect<DayRows> findDays(FindDays query) {
+        return queryResult();
+    }
+}
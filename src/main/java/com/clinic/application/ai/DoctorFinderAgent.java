@@ -4,19 +4,26 @@ import akka.javasdk.agent.Agent;
 import akka.javasdk.annotations.Component;
 import akka.javasdk.annotations.FunctionTool;
 import akka.javasdk.client.ComponentClient;
+import com.clinic.application.AvailabilityView;
+import com.clinic.application.DoctorCache;
 import com.clinic.application.DoctorsView;
 import com.clinic.domain.Doctor;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Optional;
 
 @Component(id = "doctor-finder-agent")
 public class DoctorFinderAgent extends Agent {
 
+    private static final int MAX_CANDIDATES = 20;
+
     private final ComponentClient componentClient;
+    private final DoctorCache doctorCache;
 
-    public DoctorFinderAgent(ComponentClient componentClient) {
+    public DoctorFinderAgent(ComponentClient componentClient, DoctorCache doctorCache) {
         this.componentClient = componentClient;
+        this.doctorCache = doctorCache;
     }
 
 
@@ -43,12 +50,29 @@ public class DoctorFinderAgent extends Agent {
     }*/
 
     @FunctionTool(name = "find-doctors-by-speciality", description = "Returns all available doctors for a given speciality")
-    public List<DoctorsView.DoctorRow> findDoctorsBySpeciality(String speciality) {
+    public List<DoctorsView.SpecialityRow> findDoctorsBySpeciality(String speciality) {
+        return doctorCache.findBySpeciality(speciality);
+    }
+
+    @FunctionTool(name = "find-doctors-by-specialities", description = "Returns all available doctors for any of the given candidate specialities")
+    public List<DoctorsView.SpecialityRow> findDoctorsBySpecialities(List<String> specialities) {
+        // the view can only match one key against the speciality array, so look up each key and merge by doctor
+        var doctors = new LinkedHashMap<String, DoctorsView.SpecialityRow>();
+        specialities.stream()
+                .map(Doctor::specialityKey)
+                .distinct()
+                .flatMap(key -> doctorCache.findBySpeciality(key).stream())
+                .forEach(row -> doctors.putIfAbsent(row.id(), row));
+        return List.copyOf(doctors.values());
+    }
+
+    @FunctionTool(name = "find-available-doctors", description = "Returns doctors of a speciality with room for an appointment of the given minutes on a date (yyyy-MM-dd), least booked first")
+    public List<AvailabilityView.Candidate> findAvailableDoctors(String speciality, String date, int minutes) {
         return componentClient
                 .forView()
-                .method(DoctorsView::findBySpeciality)
-                .invoke(new DoctorsView.FindBySpecialityQuery(speciality))
-                .doctors();
+                .method(AvailabilityView::findCandidates)
+                .invoke(AvailabilityView.FindCandidates.of(speciality, date, date, minutes, MAX_CANDIDATES))
+                .candidates();
     }
 
     private static final String WORKFLOW_SYSTEM_MESSAGE = """
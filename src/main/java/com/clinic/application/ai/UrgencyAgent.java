@@ -1,8 +1,15 @@
 package com.clinic.application.ai;
 
+import akka.javasdk.JsonSupport;
 import akka.javasdk.agent.Agent;
 import akka.javasdk.annotations.Component;
 import akka.javasdk.client.ComponentClient;
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Component(id = "urgency-agent")
 public class UrgencyAgent extends Agent{
@@ -15,6 +22,17 @@ public class UrgencyAgent extends Agent{
             Your final output for this assessment must be only one of these three exact terms.
             """;
 
+    private static final String TRIAGE_SYSTEM_MESSAGE = """
+            You are an AI triage assistant responsible for evaluating patient-reported medical issues.
+            You receive a JSON array of appointments, each with an "appointmentId" and the "issue" reported by the patient.
+            Assess each issue on its own and classify its urgency as one of three exact terms: "high", "medium", or "low".
+            Return one entry per appointment, with its appointmentId unchanged and its urgency.
+            Respond *only* with a JSON object of exactly this shape, without any other text or formatting:
+            {"urgencies":[{"appointmentId":"<appointmentId>","urgency":"high"}]}
+            """;
+
+    private static final Set<String> URGENCIES = Set.of("high", "medium", "low");
+
     public Effect<String> urgency(String issue) {
         return effects()
                 .systemMessage(SYSTEM_MESSAGE)
@@ -22,5 +40,52 @@ public class UrgencyAgent extends Agent{
                 .thenReply();
     }
 
+    public record TriageItem(String appointmentId, String issue) {}
+
+    public record Triage(String appointmentId, String urgency) {}
+
+    public record TriageResult(List<Triage> urgencies) {
+        public static final TriageResult EMPTY = new TriageResult(List.of());
+
+        /**
+         * @return the valid urgencies by appointment id, appointments missing here should be triaged one by one
+         */
+        public Map<String, String> byAppointmentId() {
+            var byId = new HashMap<String, String>();
+            if (urgencies == null)
+                return byId;
+            for (var triage : urgencies) {
+                if (triage == null || triage.appointmentId() == null || triage.urgency() == null)
+                    continue;
+                var urgency = triage.urgency().trim().toLowerCase();
+                if (URGENCIES.contains(urgency))
+                    byId.put(triage.appointmentId(), urgency);
+            }
+            return byId;
+        }
+    }
+
+    /**
+     * Triage of several appointments in one model call. A response that can't be parsed gives an empty result, and entries
+     * without a valid urgency are dropped by {@link TriageResult#byAppointmentId()}.
+     */
+    public Effect<TriageResult> triage(List<TriageItem> items) {
+        if (items.isEmpty())
+            return effects().reply(TriageResult.EMPTY);
+        return effects()
+                .systemMessage(TRIAGE_SYSTEM_MESSAGE)
+                .userMessage(toJson(items))
+                .responseAs(TriageResult.class)
+                .onFailure(error -> TriageResult.EMPTY)
+                .thenReply();
+    }
+
+    private static String toJson(List<TriageItem> items) {
+        try {
+            return JsonSupport.getObjectMapper().writeValueAsString(items);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot encode triage items", e);
+        }
+    }
 
 }
@@ -0,0 +1,76 @@
+package com.clinic.domain;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Immutable list where appending to the latest version is amortized O(1).
+ * Versions share one growing buffer: each version only sees its own prefix, and only the version whose size
+ * matches the number of claimed cells may write into the next cell. Appending to an older version copies.
+ */
+final class AppendOnlyList<T> extends AbstractList<T> implements RandomAccess {
+
+    private static final AppendOnlyList<?> EMPTY = new AppendOnlyList<>(new Buffer(new Object[0]), 0);
+
+    private static final class Buffer {
+        final Object[] items;
+        final AtomicInteger claimed;
+
+        Buffer(Object[] items) {
+            this.items = items;
+            this.claimed = new AtomicInteger(items.length);
+        }
+
+        Buffer(Object[] items, int claimed) {
+            this.items = items;
+            this.claimed = new AtomicInteger(claimed);
+        }
+    }
+
+    private final Buffer buffer;
+    private final int size;
+
+    private AppendOnlyList(Buffer buffer, int size) {
+        this.buffer = buffer;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> AppendOnlyList<T> empty() {
+        return (AppendOnlyList<T>) EMPTY;
+    }
+
+    static <T> AppendOnlyList<T> of(List<T> items) {
+        if (items instanceof AppendOnlyList<T> list)
+            return list;
+        if (items.isEmpty())
+            return empty();
+        return new AppendOnlyList<>(new Buffer(items.toArray()), items.size());
+    }
+
+    AppendOnlyList<T> append(T item) {
+        if (size < buffer.items.length && buffer.claimed.compareAndSet(size, size + 1)) {
+            buffer.items[size] = item;
+            return new AppendOnlyList<>(buffer, size + 1);
+        }
+        var items = Arrays.copyOf(buffer.items, Math.max(4, size * 2));
+        items[size] = item;
+        return new AppendOnlyList<>(new Buffer(items, size + 1), size + 1);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException(index);
+        return (T) buffer.items[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
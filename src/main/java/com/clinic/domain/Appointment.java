@@ -1,8 +1,9 @@
 package com.clinic.domain;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,10 +17,111 @@ public record Appointment(String id, LocalDateTime dateTime, String doctorId, St
         MISSED
     }
 
+    public Appointment {
+        // appends share the backing array of the version they are made from, see AppendOnlyList
+        prescriptions = AppendOnlyList.of(prescriptions);
+    }
+
     public Appointment(String id, LocalDateTime dateTime, String doctorId, String patientId, String issue) {
         this(id, dateTime, doctorId, patientId, issue, Optional.empty(), List.of(), Status.PENDING);
     }
 
+    /**
+     * @return the date-time as an instant in the service's time zone, as views store appointment times for sorting
+     * and range queries
+     */
+    public static Instant toInstant(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    /**
+     * Applies any event that follows {@link AppointmentEvents.AppointmentCreated}.
+     */
+    public Appointment onEvent(AppointmentEvents event) {
+        return switch (event) {
+            case AppointmentEvents.AppointmentCreated e ->
+                    throw new IllegalStateException("Appointment " + id + " has already been created");
+            case AppointmentEvents.AddedDoctorNotes e -> addNotes(e.notes());
+            case AppointmentEvents.AddedPrescription e -> addPrescription(e.prescription());
+            case AppointmentEvents.Scheduled e -> markAsScheduled();
+            case AppointmentEvents.Completed e -> complete();
+            case AppointmentEvents.Cancelled e -> cancel();
+            case AppointmentEvents.Missed e -> markAsMissed();
+            case AppointmentEvents.Rescheduled e -> reschedule(e.dateTime(), e.doctorId());
+        };
+    }
+
+    /**
+     * @return a mutable copy to fold events into, see {@link Builder}
+     */
+    public Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    /**
+     * Folds a whole history into one appointment, allocating the record once at the end.
+     */
+    public static Appointment replay(String id, AppointmentEvents.AppointmentCreated created,
+                                     List<AppointmentEvents> events) {
+        var builder = new Appointment(id, created.dateTime(), created.doctorId(), created.patientId(), created.issue())
+                .toBuilder();
+        for (var event : events)
+            builder.apply(event);
+        return builder.build();
+    }
+
+    /**
+     * Applies events in place and freezes the result once with {@link #build()}. {@code AppointmentEntity} cannot use
+     * it: the SDK hands events to {@code applyEvent} one at a time, keeps the returned state after each of them and
+     * has no end-of-replay hook, so the entity applies {@link #onEvent} instead.
+     */
+    public static final class Builder {
+        private final String id;
+        private LocalDateTime dateTime;
+        private String doctorId;
+        private final String patientId;
+        private final String issue;
+        private Optional<String> notes;
+        private final List<String> prescriptions;
+        private Status status;
+
+        private Builder(Appointment from) {
+            this.id = from.id;
+            this.dateTime = from.dateTime;
+            this.doctorId = from.doctorId;
+            this.patientId = from.patientId;
+            this.issue = from.issue;
+            this.notes = from.notes;
+            this.prescriptions = new ArrayList<>(from.prescriptions);
+            this.status = from.status;
+        }
+
+        /**
+         * Applies any event that follows {@link AppointmentEvents.AppointmentCreated}.
+         */
+        public Builder apply(AppointmentEvents event) {
+            switch (event) {
+                case AppointmentEvents.AppointmentCreated e ->
+                        throw new IllegalStateException("Appointment " + id + " has already been created");
+                case AppointmentEvents.AddedDoctorNotes e -> notes = Optional.of(e.notes());
+                case AppointmentEvents.AddedPrescription e -> prescriptions.add(e.prescription());
+                case AppointmentEvents.Scheduled e -> status = Status.SCHEDULED;
+                case AppointmentEvents.Completed e -> status = Status.COMPLETED;
+                case AppointmentEvents.Cancelled e -> status = Status.CANCELLED;
+                case AppointmentEvents.Missed e -> status = Status.MISSED;
+                case AppointmentEvents.Rescheduled e -> {
+                    dateTime = e.dateTime();
+                    doctorId = e.doctorId();
+                }
+            }
+            return this;
+        }
+
+        public Appointment build() {
+            return new Appointment(id, dateTime, doctorId, patientId, issue, notes, prescriptions, status);
+        }
+    }
+
     public Appointment reschedule(LocalDateTime newDateTime, String newDoctorId) {
         return new Appointment(id, newDateTime, newDoctorId, patientId, issue, notes, prescriptions, status);
     }
@@ -29,9 +131,8 @@ public record Appointment(String id, LocalDateTime dateTime, String doctorId, St
     }
 
     public Appointment addPrescription(String prescription) {
-        var prescriptions = new ArrayList<>(this.prescriptions);
-        prescriptions.add(prescription);
-        return new Appointment(id, dateTime, doctorId, patientId, issue, notes, Collections.unmodifiableList(prescriptions), status);
+        var prescriptions = ((AppendOnlyList<String>) this.prescriptions).append(prescription);
+        return new Appointment(id, dateTime, doctorId, patientId, issue, notes, prescriptions, status);
     }
 
     public Appointment markAsScheduled() {
@@ -1,12 +1,16 @@
 package com.clinic.domain;
 
 import akka.javasdk.annotations.TypeName;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 import java.time.LocalDateTime;
 
 public sealed interface AppointmentEvents {
     @TypeName("appointment-created")
-    record AppointmentCreated(LocalDateTime dateTime, String doctorId, String patientId,
+    record AppointmentCreated(@JsonSerialize(using = CompactJson.DateTimeSerializer.class)
+                              @JsonDeserialize(using = CompactJson.DateTimeDeserializer.class)
+                              LocalDateTime dateTime, String doctorId, String patientId,
                               String issue) implements AppointmentEvents {
     }
 
@@ -19,7 +23,9 @@ public sealed interface AppointmentEvents {
     }
 
     @TypeName("rescheduled")
-    record Rescheduled(LocalDateTime dateTime, String doctorId) implements AppointmentEvents {
+    record Rescheduled(@JsonSerialize(using = CompactJson.DateTimeSerializer.class)
+                       @JsonDeserialize(using = CompactJson.DateTimeDeserializer.class)
+                       LocalDateTime dateTime, String doctorId) implements AppointmentEvents {
     }
 
     @TypeName("scheduled")
@@ -0,0 +1,134 @@
+package com.clinic.domain;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Compact JSON encodings for persisted types that are written in large numbers.
+ * <p>
+ * Times on a whole minute are written as numbers (minute of day, or {@code yyyyMMddHHmm} for date-times) and fall
+ * back to ISO strings otherwise. A time slot is written as {@code [start, end, appointmentId, version]}, where
+ * {@code version} is {@value #SLOT_VERSION}. Readers accept the original object shape and slots written before the
+ * version was added, so states and events written before keep loading, and each value is rewritten compactly the
+ * next time it is stored. Slots of any other version are rejected.
+ * <p>
+ * The encodings are applied per field on persisted shapes only ({@link StoredSchedule}, appointment events), so
+ * replies, views and HTTP responses keep the readable JSON.
+ */
+public final class CompactJson {
+
+    public static final int SLOT_VERSION = 1;
+
+    private CompactJson() {
+    }
+
+    public static final class TimeScheduleSerializer extends StdSerializer<Schedule.TimeSchedule> {
+        public TimeScheduleSerializer() {
+            super(Schedule.TimeSchedule.class);
+        }
+
+        @Override
+        public void serialize(Schedule.TimeSchedule slot, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartArray();
+            writeTime(gen, slot.startTime());
+            writeTime(gen, slot.endTime());
+            gen.writeString(slot.appointmentId());
+            gen.writeNumber(SLOT_VERSION);
+            gen.writeEndArray();
+        }
+    }
+
+    public static final class TimeScheduleDeserializer extends StdDeserializer<Schedule.TimeSchedule> {
+        public TimeScheduleDeserializer() {
+            super(Schedule.TimeSchedule.class);
+        }
+
+        @Override
+        public Schedule.TimeSchedule deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (!p.isExpectedStartArrayToken()) {
+                // {"startTime": "08:00:00", "endTime": "08:30:00", "appointmentId": "..."}
+                JsonNode legacy = p.readValueAsTree();
+                return new Schedule.TimeSchedule(
+                        LocalTime.parse(legacy.get("startTime").asText()),
+                        LocalTime.parse(legacy.get("endTime").asText()),
+                        legacy.get("appointmentId").asText());
+            }
+            p.nextToken();
+            var startTime = readTime(p, ctxt);
+            p.nextToken();
+            var endTime = readTime(p, ctxt);
+            var appointmentId = p.nextTextValue();
+            // [start, end, appointmentId] was written before slots carried a version
+            if (p.nextToken() != JsonToken.END_ARRAY) {
+                if (p.currentToken() != JsonToken.VALUE_NUMBER_INT || p.getIntValue() != SLOT_VERSION)
+                    return ctxt.reportInputMismatch(this, "Unsupported time slot version: %s", p.getText());
+                if (p.nextToken() != JsonToken.END_ARRAY)
+                    ctxt.reportWrongTokenException(this, JsonToken.END_ARRAY, "Expected [start, end, appointmentId, version]");
+            }
+            return new Schedule.TimeSchedule(startTime, endTime, appointmentId);
+        }
+    }
+
+    public static final class DateTimeSerializer extends StdSerializer<LocalDateTime> {
+        public DateTimeSerializer() {
+            super(LocalDateTime.class);
+        }
+
+        @Override
+        public void serialize(LocalDateTime dateTime, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            if (dateTime.getSecond() != 0 || dateTime.getNano() != 0 || dateTime.getYear() < 0 || dateTime.getYear() > 9999) {
+                gen.writeString(dateTime.toString());
+                return;
+            }
+            gen.writeNumber(dateTime.getYear() * 100_000_000L
+                    + dateTime.getMonthValue() * 1_000_000L
+                    + dateTime.getDayOfMonth() * 10_000L
+                    + dateTime.getHour() * 100L
+                    + dateTime.getMinute());
+        }
+    }
+
+    public static final class DateTimeDeserializer extends StdDeserializer<LocalDateTime> {
+        public DateTimeDeserializer() {
+            super(LocalDateTime.class);
+        }
+
+        @Override
+        public LocalDateTime deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.currentToken() != JsonToken.VALUE_NUMBER_INT)
+                return LocalDateTime.parse(p.getText());
+            long value = p.getLongValue();
+            return LocalDateTime.of(
+                    (int) (value / 100_000_000L),
+                    (int) (value / 1_000_000L % 100),
+                    (int) (value / 10_000L % 100),
+                    (int) (value / 100L % 100),
+                    (int) (value % 100));
+        }
+    }
+
+    private static void writeTime(JsonGenerator gen, LocalTime time) throws IOException {
+        if (time.getSecond() == 0 && time.getNano() == 0)
+            gen.writeNumber(time.getHour() * 60 + time.getMinute());
+        else
+            gen.writeString(time.toString());
+    }
+
+    private static LocalTime readTime(JsonParser p, DeserializationContext ctxt) throws IOException {
+        return switch (p.currentToken()) {
+            case VALUE_NUMBER_INT -> LocalTime.ofSecondOfDay(p.getIntValue() * 60L);
+            case VALUE_STRING -> LocalTime.parse(p.getText());
+            default -> (LocalTime) ctxt.handleUnexpectedToken(LocalTime.class, p);
+        };
+    }
+}
@@ -1,6 +1,7 @@
 package com.clinic.domain;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 public record Doctor(
@@ -13,4 +14,11 @@ public record Doctor(
 ) {
     public record Contact(Optional<String> phone, Optional<String> email) {
     }
+
+    /**
+     * Normalized form of a speciality for lookups: " general  Practitioner" and "General practitioner" match.
+     */
+    public static String specialityKey(String speciality) {
+        return speciality.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
 }
\ No newline at end of file
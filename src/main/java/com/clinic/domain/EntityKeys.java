@@ -0,0 +1,124 @@
+package com.clinic.domain;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Encodes and decodes the composite ids used for entities, workflows and agent sessions.
+ * <p>
+ * Schedule ids are {@code <doctorId>:<yyyy-MM-dd>}. The date is always the suffix and never contains the
+ * separator, so decoding splits at the last separator and doctor ids may contain {@code :} without escaping,
+ * which keeps every existing id valid.
+ */
+public final class EntityKeys {
+
+    private static final char SEPARATOR = ':';
+    private static final int DATE_LENGTH = 10;
+    private static final int CACHE_CAPACITY = 4096;
+
+    private static final ConcurrentHashMap<String, Schedule.ScheduleId> scheduleIds = new ConcurrentHashMap<>();
+
+    private EntityKeys() {
+    }
+
+    public static String scheduleId(String doctorId, LocalDate date) {
+        var key = new StringBuilder(doctorId.length() + 1 + DATE_LENGTH)
+                .append(doctorId)
+                .append(SEPARATOR);
+        return appendDate(key, date).toString();
+    }
+
+    /**
+     * Parsed ids are cached, since the same schedule is activated over and over during a booking day.
+     */
+    public static Schedule.ScheduleId parseScheduleId(String key) {
+        var cached = scheduleIds.get(key);
+        if (cached != null)
+            return cached;
+
+        var parsed = decodeScheduleId(key);
+        if (scheduleIds.size() >= CACHE_CAPACITY)
+            scheduleIds.clear();
+        scheduleIds.put(key, parsed);
+        return parsed;
+    }
+
+    static Schedule.ScheduleId decodeScheduleId(String key) {
+        int separator = key.lastIndexOf(SEPARATOR);
+        if (separator < 0)
+            throw new IllegalArgumentException("Invalid schedule id: " + key);
+        try {
+            var date = key.length() - separator - 1 == DATE_LENGTH
+                    ? parseIsoDate(key, separator + 1)
+                    : LocalDate.parse(key.substring(separator + 1));
+            return new Schedule.ScheduleId(key.substring(0, separator), date);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Invalid schedule id: " + key, e);
+        }
+    }
+
+    public static String deleteScheduleWorkflowId(String doctorId, LocalDate date) {
+        var key = new StringBuilder(16 + doctorId.length() + 1 + DATE_LENGTH)
+                .append("delete-schedule-")
+                .append(doctorId)
+                .append('-');
+        return appendDate(key, date).toString();
+    }
+
+    /**
+     * @param week see {@link Utilization#weekOf(LocalDate)}
+     */
+    public static String doctorUtilizationId(String doctorId, String week) {
+        return "doctor" + SEPARATOR + doctorId + SEPARATOR + week;
+    }
+
+    /**
+     * @param specialityKey see {@link Doctor#specialityKey(String)}
+     */
+    public static String specialityUtilizationId(String specialityKey, String week) {
+        return "speciality" + SEPARATOR + specialityKey + SEPARATOR + week;
+    }
+
+    public static String agentSessionId(String workflowId, String appointmentId) {
+        return workflowId + "-" + appointmentId;
+    }
+
+    private static StringBuilder appendDate(StringBuilder key, LocalDate date) {
+        int year = date.getYear();
+        if (year < 0 || year > 9999)
+            return key.append(date);
+        appendDigits(key, year, 4).append('-');
+        appendDigits(key, date.getMonthValue(), 2).append('-');
+        return appendDigits(key, date.getDayOfMonth(), 2);
+    }
+
+    private static StringBuilder appendDigits(StringBuilder key, int value, int width) {
+        for (int divisor = width == 4 ? 1000 : 10; divisor > 0; divisor /= 10)
+            key.append((char) ('0' + (value / divisor) % 10));
+        return key;
+    }
+
+    /**
+     * Parses {@code yyyy-MM-dd} starting at {@code offset} without going through a formatter.
+     */
+    private static LocalDate parseIsoDate(String key, int offset) {
+        if (key.charAt(offset + 4) != '-' || key.charAt(offset + 7) != '-')
+            throw new DateTimeException("Invalid date: " + key.substring(offset));
+        int year = digits(key, offset, 4);
+        int month = digits(key, offset + 5, 2);
+        int day = digits(key, offset + 8, 2);
+        return LocalDate.of(year, month, day);
+    }
+
+    private static int digits(String key, int offset, int length) {
+        int value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            int digit = key.charAt(i) - '0';
+            if (digit < 0 || digit > 9)
+                throw new DateTimeException("Invalid date: " + key);
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
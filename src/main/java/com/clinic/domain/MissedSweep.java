@@ -0,0 +1,91 @@
+package com.clinic.domain;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Progress of marking the still scheduled appointments of one day as missed.
+ * Doctors are checkpointed one by one, so a sweep that is interrupted resumes with the doctors it has not finished.
+ *
+ * @param failed          appointments that could not be checked, over all runs of the sweep
+ * @param failedDoctorIds doctors whose last attempt failed and that have not been swept since
+ * @param failedRuns      runs that ended with failed doctors, each one is retried
+ */
+public record MissedSweep(LocalDate date, List<String> sweptDoctorIds, int checked, int marked, int failed,
+                         List<String> failedDoctorIds, int failedRuns, Instant startedAt, Optional<Instant> finishedAt) {
+
+    /**
+     * @param failed appointments that could not be checked, a doctor is only swept when there are none
+     */
+    public record DoctorResult(String doctorId, int checked, int marked, int failed) {}
+
+    public MissedSweep {
+        if (failedDoctorIds == null)
+            failedDoctorIds = List.of();
+    }
+
+    public static MissedSweep start(LocalDate date, Instant now) {
+        return new MissedSweep(date, List.of(), 0, 0, 0, List.of(), 0, now, Optional.empty());
+    }
+
+    public boolean hasSwept(String doctorId) {
+        return sweptDoctorIds.contains(doctorId);
+    }
+
+    public MissedSweep record(DoctorResult result) {
+        if (hasSwept(result.doctorId()))
+            return this;
+        var sweptDoctorIds = new ArrayList<>(this.sweptDoctorIds);
+        sweptDoctorIds.add(result.doctorId());
+        var failedDoctorIds = this.failedDoctorIds.stream().filter(id -> !id.equals(result.doctorId())).toList();
+        return new MissedSweep(date, sweptDoctorIds, checked + result.checked(), marked + result.marked(),
+                failed + result.failed(), failedDoctorIds, failedRuns, startedAt, finishedAt);
+    }
+
+    /**
+     * Records a doctor that could not be swept completely. The doctor is not checkpointed, so the next run checks
+     * all its appointments again; only the appointments that were already marked and the failures are counted.
+     */
+    public MissedSweep recordFailure(DoctorResult result) {
+        if (hasSwept(result.doctorId()))
+            return this;
+        var failedDoctorIds = new ArrayList<>(this.failedDoctorIds);
+        if (!failedDoctorIds.contains(result.doctorId()))
+            failedDoctorIds.add(result.doctorId());
+        return new MissedSweep(date, sweptDoctorIds, checked, marked + result.marked(), failed + result.failed(),
+                failedDoctorIds, failedRuns, startedAt, finishedAt);
+    }
+
+    public MissedSweep failRun() {
+        return new MissedSweep(date, sweptDoctorIds, checked, marked, failed, failedDoctorIds, failedRuns + 1,
+                startedAt, finishedAt);
+    }
+
+    public MissedSweep finish(Instant now) {
+        return new MissedSweep(date, sweptDoctorIds, checked, marked, failed, failedDoctorIds, failedRuns,
+                startedAt, Optional.of(now));
+    }
+
+    /**
+     * @return appointments checked per second, once the sweep has finished
+     */
+    public Optional<Double> throughput() {
+        return finishedAt.map(end -> {
+            var millis = Math.max(1, Duration.between(startedAt, end).toMillis());
+            return checked * 1000.0 / millis;
+        });
+    }
+
+    /**
+     * @return how long after the end of the swept day the sweep finished, or is still running at {@code now}
+     */
+    public Duration lag(ZoneId zone, Instant now) {
+        var endOfDay = date.plusDays(1).atStartOfDay(zone).toInstant();
+        return Duration.between(endOfDay, finishedAt.orElse(now));
+    }
+}
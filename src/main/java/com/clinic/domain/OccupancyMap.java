@@ -0,0 +1,164 @@
+package com.clinic.domain;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.Arrays;
+
+/**
+ * Busy/free bitmap of a day with one bit per minute.
+ * Slots that start or end inside a minute mark the whole minute as busy, so a free answer is always exact
+ * and the map can only be more pessimistic than the slot list for sub-minute boundaries.
+ */
+final class OccupancyMap {
+
+    static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int WORDS = (MINUTES_PER_DAY + Long.SIZE - 1) / Long.SIZE;
+
+    static final OccupancyMap EMPTY = new OccupancyMap(new long[WORDS]);
+
+    private final long[] words;
+
+    private OccupancyMap(long[] words) {
+        this.words = words;
+    }
+
+    static int floorMinute(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    static int ceilMinute(LocalTime time) {
+        var minute = floorMinute(time);
+        return time.getSecond() == 0 && time.getNano() == 0 ? minute : minute + 1;
+    }
+
+    static LocalTime timeOf(int minute) {
+        return LocalTime.of(minute / 60, minute % 60);
+    }
+
+    /**
+     * @return a copy with the minutes covered by {@code slot} marked busy
+     */
+    OccupancyMap with(Schedule.TimeSchedule slot) {
+        var copy = Arrays.copyOf(words, WORDS);
+        fill(copy, floorMinute(slot.startTime()), ceilMinute(slot.endTime()), true);
+        return new OccupancyMap(copy);
+    }
+
+    /**
+     * @return a copy with the minutes covered by {@code slot} freed, except the ones its neighbours still cover
+     */
+    OccupancyMap without(Schedule.TimeSchedule slot, Schedule.TimeSchedule previous, Schedule.TimeSchedule next) {
+        var copy = Arrays.copyOf(words, WORDS);
+        fill(copy, floorMinute(slot.startTime()), ceilMinute(slot.endTime()), false);
+        if (previous != null)
+            fill(copy, floorMinute(previous.startTime()), ceilMinute(previous.endTime()), true);
+        if (next != null)
+            fill(copy, floorMinute(next.startTime()), ceilMinute(next.endTime()), true);
+        return new OccupancyMap(copy);
+    }
+
+    /**
+     * Marks the slots in place; only used while building a map that hasn't been shared yet.
+     */
+    static OccupancyMap of(Iterable<Schedule.TimeSchedule> slots) {
+        var words = new long[WORDS];
+        for (var slot : slots)
+            fill(words, floorMinute(slot.startTime()), ceilMinute(slot.endTime()), true);
+        return new OccupancyMap(words);
+    }
+
+    /**
+     * @return true if no minute in [from, to) is busy
+     */
+    boolean isFree(int from, int to) {
+        if (from >= to)
+            return true;
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        for (int i = first; i <= last; i++) {
+            long mask = -1L;
+            if (i == first)
+                mask &= -1L << (from & 63);
+            if (i == last)
+                mask &= -1L >>> (63 - ((to - 1) & 63));
+            if ((words[i] & mask) != 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return the first free minute at or after {@code from}, or {@code limit} if there is none before it
+     */
+    int nextFree(int from, int limit) {
+        int i = from >>> 6;
+        if (i >= WORDS)
+            return limit;
+        long word = ~words[i] & (-1L << (from & 63));
+        while (word == 0) {
+            if (++i >= WORDS)
+                return limit;
+            word = ~words[i];
+        }
+        return Math.min(limit, (i << 6) + Long.numberOfTrailingZeros(word));
+    }
+
+    /**
+     * @return the first busy minute at or after {@code from}, or {@code limit} if there is none before it
+     */
+    int nextBusy(int from, int limit) {
+        int i = from >>> 6;
+        if (i >= WORDS)
+            return limit;
+        long word = words[i] & (-1L << (from & 63));
+        while (word == 0) {
+            if (++i >= WORDS)
+                return limit;
+            word = words[i];
+        }
+        return Math.min(limit, (i << 6) + Long.numberOfTrailingZeros(word));
+    }
+
+    /**
+     * Visits the free runs inside [from, to) in order until the visitor returns false.
+     */
+    void forEachGap(int from, int to, GapVisitor visitor) {
+        int start = nextFree(from, to);
+        while (start < to) {
+            int end = nextBusy(start, to);
+            if (!visitor.visit(start, end))
+                return;
+            start = nextFree(end, to);
+        }
+    }
+
+    @FunctionalInterface
+    interface GapVisitor {
+        boolean visit(int startMinute, int endMinute);
+    }
+
+    static int minutes(Duration duration) {
+        var minutes = duration.toMinutes();
+        if (duration.compareTo(Duration.ofMinutes(minutes)) > 0)
+            minutes++;
+        return (int) Math.min(minutes, MINUTES_PER_DAY + 1);
+    }
+
+    private static void fill(long[] words, int from, int to, boolean busy) {
+        if (from >= to)
+            return;
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        for (int i = first; i <= last; i++) {
+            long mask = -1L;
+            if (i == first)
+                mask &= -1L << (from & 63);
+            if (i == last)
+                mask &= -1L >>> (63 - ((to - 1) & 63));
+            if (busy)
+                words[i] |= mask;
+            else
+                words[i] &= ~mask;
+        }
+    }
+}
@@ -1,12 +1,35 @@
 package com.clinic.domain;
 
 import java.time.LocalDateTime;
+import java.util.Optional;
 
 public record RescheduleAppointmentState(LocalDateTime oldDateTime,
                                          String oldDoctorId,
                                          LocalDateTime newDatetime,
                                          String newDoctorId,
                                          String patientId,
-                                         String issue
+                                         String issue,
+                                         Status status,
+                                         Optional<String> deletionWorkflowId
                                          ) {
+
+    public enum Status {
+        STARTED,
+        /** The appointment moved to the new slot. */
+        RESCHEDULED,
+        /** The new slot could not be booked or the appointment not moved, it kept its old slot. */
+        UNCHANGED
+    }
+
+    public RescheduleAppointmentState {
+        // state persisted before the status and the reporting deletion were recorded
+        if (status == null)
+            status = Status.STARTED;
+        if (deletionWorkflowId == null)
+            deletionWorkflowId = Optional.empty();
+    }
+
+    public RescheduleAppointmentState withStatus(Status status) {
+        return new RescheduleAppointmentState(oldDateTime, oldDoctorId, newDatetime, newDoctorId, patientId, issue, status, deletionWorkflowId);
+    }
 }
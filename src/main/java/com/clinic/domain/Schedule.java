@@ -4,9 +4,8 @@ import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 public record Schedule(ScheduleId id, WorkingHours workingHours, List<TimeSchedule> timeSlots, Status status) {
 
@@ -19,33 +18,26 @@ public record Schedule(ScheduleId id, WorkingHours workingHours, List<TimeSchedu
     }
 
     public Schedule {
-        var isInWorkingHours = timeSlots
-                .stream()
-                .allMatch(workingHours::isInWorkingHours);
+        var slots = TimeSlots.of(timeSlots);
+        // slots are ordered and disjoint, so only the first and the last one can leave the working hours
+        var isInWorkingHours = slots.isEmpty()
+                || (workingHours.isInWorkingHours(slots.get(0)) && workingHours.isInWorkingHours(slots.get(slots.size() - 1)));
         if (!isInWorkingHours)
             throw new IllegalArgumentException("Appointment is not in working hours");
-
-        var isOverlapping = timeSlots
-                .stream()
-                .anyMatch(slot -> timeSlots.stream().anyMatch(otherSlot -> slot != otherSlot && slot.overlaps(otherSlot)));
-        if (isOverlapping)
-            throw new IllegalArgumentException("Appointment overlaps with another appointment");
+        timeSlots = slots;
     }
 
     public Schedule(ScheduleId id, WorkingHours workingHours) {
-        this(id, workingHours, List.of(), Status.ACTIVE);
+        this(id, workingHours, TimeSlots.EMPTY, Status.ACTIVE);
     }
 
     public record ScheduleId(String doctorId, LocalDate date) {
         public String toString() {
-            return doctorId + ":" + date.toString();
+            return EntityKeys.scheduleId(doctorId, date);
         }
 
         public static ScheduleId fromString(String id) {
-            var splitted = id.split(":");
-            var doctorId = splitted[0];
-            var date = LocalDate.parse(splitted[1]);
-            return new ScheduleId(doctorId, date);
+            return EntityKeys.parseScheduleId(id);
         }
     }
 
@@ -84,27 +76,99 @@ public record Schedule(ScheduleId id, WorkingHours workingHours, List<TimeSchedu
         }
     }
 
+    /**
+     * @param startTime inclusive
+     * @param endTime exclusive
+     */
+    public record FreeSlot(LocalTime startTime, LocalTime endTime) {
+        public Duration duration() {
+            return Duration.between(startTime, endTime);
+        }
+    }
+
+    /**
+     * @return true if a slot of the given duration starting at {@code startTime} fits in the working hours
+     * without overlapping any booked slot
+     */
+    public boolean isFree(LocalTime startTime, Duration duration) {
+        var endTime = startTime.plus(duration);
+        if (duration.isNegative() || duration.toDays() > 0 || endTime.isBefore(startTime))
+            return false;
+        if (startTime.isBefore(workingHours.startTime()) || endTime.isAfter(workingHours.endTime()))
+            return false;
+        return slots().occupancy().isFree(OccupancyMap.floorMinute(startTime), OccupancyMap.ceilMinute(endTime));
+    }
+
+    /**
+     * @return the earliest gap in the working hours that is at least {@code duration} long
+     */
+    public Optional<FreeSlot> firstFreeSlot(Duration duration) {
+        return freeSlots(duration, workingHours.startTime(), 1).stream().findFirst();
+    }
+
+    /**
+     * @return all gaps in the working hours, in order
+     */
+    public List<FreeSlot> freeSlots() {
+        return freeSlots(Duration.ZERO, workingHours.startTime(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param minDuration shortest gap to report
+     * @param notBefore gaps are cut so that they don't start before this time
+     * @param limit maximum number of gaps to return
+     * @return gaps in the working hours, in order
+     */
+    public List<FreeSlot> freeSlots(Duration minDuration, LocalTime notBefore, int limit) {
+        var minMinutes = Math.max(1, OccupancyMap.minutes(minDuration));
+        var from = Math.max(workingStartMinute(), OccupancyMap.ceilMinute(notBefore));
+        var gaps = new ArrayList<FreeSlot>();
+        if (limit <= 0)
+            return gaps;
+        slots().occupancy().forEachGap(from, workingEndMinute(), (start, end) -> {
+            if (end - start >= minMinutes)
+                gaps.add(new FreeSlot(OccupancyMap.timeOf(start), OccupancyMap.timeOf(end)));
+            return gaps.size() < limit;
+        });
+        return gaps;
+    }
+
+    public int workingMinutes() {
+        return Math.max(0, workingEndMinute() - workingStartMinute());
+    }
+
+    public int bookedMinutes() {
+        return timeSlots.stream()
+                .mapToInt(slot -> (int) Duration.between(slot.startTime(), slot.endTime()).toMinutes())
+                .sum();
+    }
+
+    private int workingStartMinute() {
+        return OccupancyMap.ceilMinute(workingHours.startTime());
+    }
+
+    private int workingEndMinute() {
+        return OccupancyMap.floorMinute(workingHours.endTime());
+    }
+
+    private TimeSlots slots() {
+        return (TimeSlots) timeSlots;
+    }
+
     public Schedule scheduleAppointment(LocalTime startTime, Duration duration, String appointmentId) {
         if (status != Status.ACTIVE) {
             throw new IllegalArgumentException("Schedule is not active and cannot be booked.");
         }
         var newTimeSlot = new TimeSchedule(startTime, startTime.plus(duration), appointmentId);
-        var newSlots = new ArrayList<>(timeSlots); //copy original slots
-        newSlots.add(newTimeSlot); //add a new time slot to the copy
-        return new Schedule(id, workingHours, Collections.unmodifiableList(newSlots), status);
+        if (!workingHours.isInWorkingHours(newTimeSlot))
+            throw new IllegalArgumentException("Appointment is not in working hours");
+        var newSlots = slots().insert(newTimeSlot);
+        return new Schedule(id, workingHours, newSlots, status);
     }
 
     public Schedule removeTimeSlot(String appointmentId, LocalTime startTime) {
-        var newSlots = timeSlots
-                .stream()
-                .filter(slot -> !(slot.appointmentId().equals(appointmentId) && slot.startTime().equals(startTime)))
-                .collect(Collectors.toList());
-
-        if (newSlots.size() == timeSlots.size()) {
-            throw new IllegalArgumentException("TimeSlot has not been removed");
-        }
-
-        return new Schedule(id, workingHours, Collections.unmodifiableList(newSlots), status);
+        var newSlots = slots().remove(appointmentId, startTime);
+        return new Schedule(id, workingHours, newSlots, status);
     }
 
     public Schedule block() {
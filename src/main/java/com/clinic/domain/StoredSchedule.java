@@ -0,0 +1,54 @@
+package com.clinic.domain;
+
+import akka.javasdk.JsonMigration;
+import akka.javasdk.annotations.Migration;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.List;
+
+/**
+ * The persisted shape of a {@link Schedule}: the same fields, with the time slots in the {@link CompactJson} encoding.
+ * Replies, views and HTTP responses keep using {@link Schedule} and its readable JSON.
+ * <p>
+ * Nodes running a release from before the compact encoding cannot read a schedule once a newer node has stored it,
+ * so roll this out with a full restart rather than a rolling update, or first ship a release that only adds the
+ * readers. Schedules are rewritten compactly the next time they change.
+ */
+@Migration(StoredSchedule.ScheduleMigration.class)
+public record StoredSchedule(Schedule.ScheduleId id,
+                             Schedule.WorkingHours workingHours,
+                             @JsonSerialize(contentUsing = CompactJson.TimeScheduleSerializer.class)
+                             @JsonDeserialize(contentUsing = CompactJson.TimeScheduleDeserializer.class)
+                             List<Schedule.TimeSchedule> timeSlots,
+                             Schedule.Status status) {
+
+    public StoredSchedule {
+        // index the slots once when loaded, not on every command that reads the state
+        timeSlots = TimeSlots.of(timeSlots);
+    }
+
+    public static StoredSchedule of(Schedule schedule) {
+        return new StoredSchedule(schedule.id(), schedule.workingHours(), schedule.timeSlots(), schedule.status());
+    }
+
+    public Schedule toSchedule() {
+        return new Schedule(id, workingHours, timeSlots, status);
+    }
+
+    /**
+     * Schedules were stored as {@link Schedule} before; the fields are unchanged and the slot reader accepts the
+     * original shape, so only the type name moves.
+     */
+    public static class ScheduleMigration extends JsonMigration {
+        @Override
+        public int currentVersion() {
+            return 1;
+        }
+
+        @Override
+        public List<String> supportedClassNames() {
+            return List.of("com.clinic.domain.Schedule");
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.clinic.domain;
+
+import java.time.LocalTime;
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable, validated collection of time slots ordered by start time.
+ * Because slots never overlap, ordering by start also orders them by end, so a conflict
+ * can only ever happen with the direct neighbours of an insertion point.
+ * An {@link OccupancyMap} of the same slots is kept alongside for free/busy queries.
+ * <p>
+ * Slots are held in a persistent AVL tree: an insert or remove copies only the path from the root to the
+ * changed node, so every new version shares all other nodes with the one it was derived from.
+ */
+final class TimeSlots extends AbstractList<Schedule.TimeSchedule> {
+
+    static final TimeSlots EMPTY = new TimeSlots(null, OccupancyMap.EMPTY);
+
+    private static final Comparator<Schedule.TimeSchedule> BY_START_TIME =
+            Comparator.comparing(Schedule.TimeSchedule::startTime);
+
+    private final Node root;
+    private final OccupancyMap occupancy;
+
+    private TimeSlots(Node root, OccupancyMap occupancy) {
+        this.root = root;
+        this.occupancy = occupancy;
+    }
+
+    /**
+     * Builds the index from a plain list (e.g. a deserialized state) with a single sweep.
+     * Lists that are already indexed are returned as they are.
+     */
+    static TimeSlots of(List<Schedule.TimeSchedule> timeSlots) {
+        if (timeSlots instanceof TimeSlots indexed)
+            return indexed;
+        if (timeSlots.isEmpty())
+            return EMPTY;
+
+        var sorted = timeSlots.toArray(new Schedule.TimeSchedule[0]);
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i].startTime().isBefore(sorted[i - 1].startTime())) {
+                // states written before slots were kept ordered
+                Arrays.sort(sorted, BY_START_TIME);
+                break;
+            }
+        }
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i - 1].overlaps(sorted[i]))
+                throw new IllegalArgumentException("Appointment overlaps with another appointment");
+        }
+        return new TimeSlots(build(sorted, 0, sorted.length), OccupancyMap.of(Arrays.asList(sorted)));
+    }
+
+    /**
+     * @return a new version containing the slot, checked only against its neighbours
+     */
+    TimeSlots insert(Schedule.TimeSchedule slot) {
+        var start = slot.startTime();
+        var previous = floor(start);
+        var next = higher(start);
+        if ((previous != null && previous.overlaps(slot)) || (next != null && next.overlaps(slot)))
+            throw new IllegalArgumentException("Appointment overlaps with another appointment");
+
+        return new TimeSlots(insert(root, slot), occupancy.with(slot));
+    }
+
+    /**
+     * @return a new version without the slot starting at {@code startTime} and booked for {@code appointmentId}
+     */
+    TimeSlots remove(String appointmentId, LocalTime startTime) {
+        var slot = floor(startTime);
+        if (slot == null || !slot.startTime().equals(startTime) || !slot.appointmentId().equals(appointmentId))
+            throw new IllegalArgumentException("TimeSlot has not been removed");
+
+        var previous = lower(startTime);
+        var next = higher(startTime);
+        return new TimeSlots(remove(root, startTime), occupancy.without(slot, previous, next));
+    }
+
+    OccupancyMap occupancy() {
+        return occupancy;
+    }
+
+    @Override
+    public Schedule.TimeSchedule get(int index) {
+        if (index < 0 || index >= size())
+            throw new IndexOutOfBoundsException(index);
+        var node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node.slot;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size(root);
+    }
+
+    @Override
+    public Iterator<Schedule.TimeSchedule> iterator() {
+        return new Iterator<>() {
+            private final ArrayDeque<Node> path = new ArrayDeque<>();
+
+            {
+                pushLeft(root);
+            }
+
+            private void pushLeft(Node node) {
+                for (; node != null; node = node.left)
+                    path.push(node);
+            }
+
+            @Override
+            public boolean hasNext() {
+                return !path.isEmpty();
+            }
+
+            @Override
+            public Schedule.TimeSchedule next() {
+                if (path.isEmpty())
+                    throw new NoSuchElementException();
+                var node = path.pop();
+                pushLeft(node.right);
+                return node.slot;
+            }
+        };
+    }
+
+    /**
+     * @return the slot with the greatest start time that is not after {@code startTime}
+     */
+    private Schedule.TimeSchedule floor(LocalTime startTime) {
+        Schedule.TimeSchedule found = null;
+        for (var node = root; node != null; ) {
+            int cmp = node.slot.startTime().compareTo(startTime);
+            if (cmp == 0)
+                return node.slot;
+            if (cmp < 0) {
+                found = node.slot;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return the slot with the greatest start time strictly before {@code startTime}
+     */
+    private Schedule.TimeSchedule lower(LocalTime startTime) {
+        Schedule.TimeSchedule found = null;
+        for (var node = root; node != null; ) {
+            if (node.slot.startTime().isBefore(startTime)) {
+                found = node.slot;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return the slot with the smallest start time strictly after {@code startTime}
+     */
+    private Schedule.TimeSchedule higher(LocalTime startTime) {
+        Schedule.TimeSchedule found = null;
+        for (var node = root; node != null; ) {
+            if (node.slot.startTime().isAfter(startTime)) {
+                found = node.slot;
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return found;
+    }
+
+    private record Node(Schedule.TimeSchedule slot, Node left, Node right, int height, int size) {
+        Node(Schedule.TimeSchedule slot, Node left, Node right) {
+            this(slot, left, right, Math.max(TimeSlots.height(left), TimeSlots.height(right)) + 1, TimeSlots.size(left) + TimeSlots.size(right) + 1);
+        }
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static Node build(Schedule.TimeSchedule[] sorted, int from, int to) {
+        if (from >= to)
+            return null;
+        int mid = (from + to) >>> 1;
+        return new Node(sorted[mid], build(sorted, from, mid), build(sorted, mid + 1, to));
+    }
+
+    private static Node insert(Node node, Schedule.TimeSchedule slot) {
+        if (node == null)
+            return new Node(slot, null, null);
+        if (slot.startTime().isBefore(node.slot.startTime()))
+            return balance(node.slot, insert(node.left, slot), node.right);
+        return balance(node.slot, node.left, insert(node.right, slot));
+    }
+
+    private static Node remove(Node node, LocalTime startTime) {
+        int cmp = startTime.compareTo(node.slot.startTime());
+        if (cmp < 0)
+            return balance(node.slot, remove(node.left, startTime), node.right);
+        if (cmp > 0)
+            return balance(node.slot, node.left, remove(node.right, startTime));
+        if (node.left == null)
+            return node.right;
+        if (node.right == null)
+            return node.left;
+        var successor = node.right;
+        while (successor.left != null)
+            successor = successor.left;
+        return balance(successor.slot, node.left, remove(node.right, successor.slot.startTime()));
+    }
+
+    private static Node balance(Schedule.TimeSchedule slot, Node left, Node right) {
+        if (height(left) > height(right) + 1) {
+            if (height(left.left) >= height(left.right))
+                return new Node(left.slot, left.left, new Node(slot, left.right, right));
+            var pivot = left.right;
+            return new Node(pivot.slot, new Node(left.slot, left.left, pivot.left), new Node(slot, pivot.right, right));
+        }
+        if (height(right) > height(left) + 1) {
+            if (height(right.right) >= height(right.left))
+                return new Node(right.slot, new Node(slot, left, right.left), right.right);
+            var pivot = right.left;
+            return new Node(pivot.slot, new Node(slot, left, pivot.left), new Node(right.slot, pivot.right, right.right));
+        }
+        return new Node(slot, left, right);
+    }
+}
@@ -0,0 +1,99 @@
+package com.clinic.domain;
+
+import java.time.LocalDate;
+import java.time.temporal.IsoFields;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Booked and working minutes summed over a set of schedule days, e.g. one doctor's week.
+ * Each day's last contribution is kept, so a changed day moves the total by the difference only and
+ * recording the same day twice changes nothing.
+ * <p>
+ * The maps are owned by the state and updated in place by {@link #record}, so a recorded day costs the same however
+ * many days are kept; only the returned value may be used afterwards.
+ *
+ * @param days           contributions keyed by schedule id
+ * @param specialityKeys specialities each schedule was counted under, keyed by schedule id; only doctor totals keep
+ *                       them, so a day can be moved off the specialities the doctor no longer has
+ */
+public record Utilization(Map<String, Day> days, Map<String, List<String>> specialityKeys, Day total) {
+
+    public Utilization {
+        if (days == null)
+            days = new HashMap<>();
+        else if (!(days instanceof HashMap))
+            days = new HashMap<>(days);
+        if (specialityKeys == null)
+            specialityKeys = new HashMap<>();
+        else if (!(specialityKeys instanceof HashMap))
+            specialityKeys = new HashMap<>(specialityKeys);
+    }
+
+    public record Day(int bookedMinutes, int workingMinutes, int slots) {
+        public static final Day EMPTY = new Day(0, 0, 0);
+
+        /**
+         * Deleted schedules no longer count.
+         */
+        public static Day of(Schedule schedule) {
+            if (schedule.status() == Schedule.Status.DELETED)
+                return EMPTY;
+            return new Day(schedule.bookedMinutes(), schedule.workingMinutes(), schedule.timeSlots().size());
+        }
+
+        Day plus(Day other) {
+            return new Day(bookedMinutes + other.bookedMinutes, workingMinutes + other.workingMinutes, slots + other.slots);
+        }
+
+        Day minus(Day other) {
+            return new Day(bookedMinutes - other.bookedMinutes, workingMinutes - other.workingMinutes, slots - other.slots);
+        }
+
+        /**
+         * @return booked share of the working minutes, if there are any
+         */
+        public Optional<Double> rate() {
+            return workingMinutes == 0 ? Optional.empty() : Optional.of((double) bookedMinutes / workingMinutes);
+        }
+    }
+
+    public static Utilization empty() {
+        return new Utilization(new HashMap<>(), new HashMap<>(), Day.EMPTY);
+    }
+
+    public Utilization record(String scheduleId, Day day) {
+        return record(scheduleId, day, List.of());
+    }
+
+    public Utilization record(String scheduleId, Day day, List<String> specialityKeys) {
+        var previous = days.getOrDefault(scheduleId, Day.EMPTY);
+        if (previous.equals(day) && specialityKeysOf(scheduleId).equals(specialityKeys))
+            return this;
+        if (day.equals(Day.EMPTY))
+            days.remove(scheduleId);
+        else
+            days.put(scheduleId, day);
+        if (day.equals(Day.EMPTY) || specialityKeys.isEmpty())
+            this.specialityKeys.remove(scheduleId);
+        else
+            this.specialityKeys.put(scheduleId, List.copyOf(specialityKeys));
+        return new Utilization(days, this.specialityKeys, total.minus(previous).plus(day));
+    }
+
+    /**
+     * @return the specialities the schedule was last counted under
+     */
+    public List<String> specialityKeysOf(String scheduleId) {
+        return specialityKeys.getOrDefault(scheduleId, List.of());
+    }
+
+    /**
+     * @return the ISO week of the date, e.g. 2031-W01
+     */
+    public static String weekOf(LocalDate date) {
+        return "%d-W%02d".formatted(date.get(IsoFields.WEEK_BASED_YEAR), date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+    }
+}
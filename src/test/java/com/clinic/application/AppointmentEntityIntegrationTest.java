@@ -7,6 +7,7 @@ import jnr.constants.platform.Local;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -116,6 +117,28 @@ public class AppointmentEntityIntegrationTest extends TestKitSupport {
         );
     }
 
+    @Test
+    public void recordVisitTest() {
+        final String appointmentId = "a7";
+
+        createAppointment(appointmentId, DATE, DOCTOR_ID, PATIENT_ID, ISSUE);
+
+        var visit = new AppointmentEntity.RecordVisitCmd(Optional.of("Notes!"), List.of("First", "Second", "Third"), true);
+        assertThrows(CommandException.class, () -> recordVisit(appointmentId, visit));
+        assertTrue(getAppointment(appointmentId).get().prescriptions().isEmpty());
+
+        componentClient
+                .forEventSourcedEntity(appointmentId)
+                .method(AppointmentEntity::schedule)
+                .invoke();
+        recordVisit(appointmentId, visit);
+
+        Appointment appointment = getAppointment(appointmentId).get();
+        assertEquals("Notes!", appointment.notes().get());
+        assertEquals(List.of("First", "Second", "Third"), appointment.prescriptions());
+        assertEquals(Appointment.Status.COMPLETED, appointment.status());
+    }
+
     @Test
     public void cancelAppointmentFromPendingTest() {
         final String appointmentId = "a5";
@@ -160,6 +183,13 @@ public class AppointmentEntityIntegrationTest extends TestKitSupport {
                 .invoke();
     }
 
+    private void recordVisit(String appointmentId, AppointmentEntity.RecordVisitCmd cmd) {
+        componentClient
+                .forEventSourcedEntity(appointmentId)
+                .method(AppointmentEntity::recordVisit)
+                .invoke(cmd);
+    }
+
     private void createAppointment(String appointmentId, String date, String doctorId, String patientId, String issue) {
         componentClient
                 .forEventSourcedEntity(appointmentId)
@@ -0,0 +1,159 @@
+package com.clinic.application;
+
+import akka.javasdk.testkit.TestKit;
+import akka.javasdk.testkit.TestKitSupport;
+import akka.javasdk.testkit.TestModelProvider;
+import com.clinic.application.DeleteScheduleWorkflow.AppointmentOutcome;
+import com.clinic.application.DeleteScheduleWorkflow.Outcome;
+import com.clinic.application.ai.DoctorFinderAgent;
+import com.clinic.application.ai.UrgencyAgent;
+import com.clinic.domain.Appointment;
+import com.clinic.domain.EntityKeys;
+import com.clinic.domain.Schedule;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static com.clinic.application.DateUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeleteScheduleWorkflowIntegrationTest extends TestKitSupport {
+
+    private final String DELETED_DOCTOR = "del-house";
+    private final String OTHER_DOCTOR = "del-wilson";
+    private final LocalDate DATE = date("2033-03-07");
+
+    private final TestModelProvider urgencyModel = new TestModelProvider();
+    private final TestModelProvider finderModel = new TestModelProvider();
+
+    @Override
+    protected TestKit.Settings testKitSettings() {
+        return TestKit.Settings.DEFAULT
+                // the third appointment waits for one of the first two reschedules to report back
+                .withAdditionalConfig("clinic.delete-schedule.concurrency = 2")
+                .withModelProvider(UrgencyAgent.class, urgencyModel)
+                .withModelProvider(DoctorFinderAgent.class, finderModel);
+    }
+
+    @Test
+    public void reschedulesIntoDistinctSlotsAndCancelsTheRest() {
+        urgencyModel.fixedResponse("""
+                {"urgencies":[{"appointmentId":"del-1","urgency":"high"},
+                              {"appointmentId":"del-2","urgency":"high"},
+                              {"appointmentId":"del-3","urgency":"high"}]}""");
+        finderModel.fixedResponse("Cardiology");
+
+        createDoctor(DELETED_DOCTOR);
+        createDoctor(OTHER_DOCTOR);
+        createSchedule(DELETED_DOCTOR, "09:00", "17:00");
+        // room for exactly two appointments
+        createSchedule(OTHER_DOCTOR, "09:00", "10:00");
+        schedule("del-1", "2033-03-07T10:00:00");
+        schedule("del-2", "2033-03-07T11:00:00");
+        schedule("del-3", "2033-03-07T12:00:00");
+
+        Awaitility.await()
+                .atMost(10, TimeUnit.SECONDS)
+                .untilAsserted(() -> {
+                    var candidates = componentClient
+                            .forView()
+                            .method(AvailabilityView::findCandidates)
+                            .invoke(AvailabilityView.FindCandidates.of("Cardiology", DATE.toString(), DATE.toString(), 30, 10))
+                            .candidates();
+                    assertTrue(candidates.stream().anyMatch(candidate -> candidate.doctorId().equals(OTHER_DOCTOR)));
+                });
+
+        componentClient
+                .forWorkflow(EntityKeys.deleteScheduleWorkflowId(DELETED_DOCTOR, DATE))
+                .method(DeleteScheduleWorkflow::start)
+                .invoke(new DeleteScheduleWorkflow.DeleteScheduleCommand(DELETED_DOCTOR, DATE));
+
+        Awaitility.await()
+                .atMost(30, TimeUnit.SECONDS)
+                .untilAsserted(() -> {
+                    var deletion = getDeletion();
+                    assertTrue(deletion.appointmentsToCancel().isEmpty());
+                    assertTrue(deletion.inFlight().isEmpty());
+                    assertEquals(3, deletion.outcomes().size());
+                });
+
+        var outcomes = getDeletion().outcomes();
+        var rescheduled = outcomes.stream().filter(outcome -> outcome.outcome() == Outcome.RESCHEDULED).toList();
+        var cancelled = outcomes.stream().filter(outcome -> outcome.outcome() == Outcome.CANCELLED).toList();
+        assertEquals(2, rescheduled.size());
+        assertEquals(1, cancelled.size());
+        assertEquals(List.of(dateTime("2033-03-07T09:00:00"), dateTime("2033-03-07T09:30:00")),
+                rescheduled.stream().map(AppointmentOutcome::newDateTime).flatMap(Optional::stream).sorted().toList());
+
+        for (var outcome : rescheduled) {
+            var appointment = getAppointment(outcome.appointmentId());
+            assertEquals(Appointment.Status.SCHEDULED, appointment.status());
+            assertEquals(OTHER_DOCTOR, appointment.doctorId());
+            assertEquals(outcome.newDateTime().orElseThrow(), appointment.dateTime());
+        }
+        assertEquals(Appointment.Status.CANCELLED, getAppointment(cancelled.getFirst().appointmentId()).status());
+
+        Awaitility.await()
+                .atMost(10, TimeUnit.SECONDS)
+                .untilAsserted(() -> assertEquals(Schedule.Status.DELETED, getSchedule(DELETED_DOCTOR).status()));
+        assertFalse(componentClient
+                .forKeyValueEntity(new Schedule.ScheduleId(OTHER_DOCTOR, DATE).toString())
+                .method(ScheduleEntity::isAvailable)
+                .invoke(new ScheduleEntity.AvailabilityQuery(time("09:00"), Duration.ofMinutes(30))));
+    }
+
+    private DeleteScheduleWorkflow.DeleteScheduleState getDeletion() {
+        return httpClient
+                .GET("/schedules/" + DATE + "/deletion")
+                .addHeader("doctorId", DELETED_DOCTOR)
+                .responseBodyAs(DeleteScheduleWorkflow.DeleteScheduleState.class)
+                .invoke()
+                .body();
+    }
+
+    private void createDoctor(String doctorId) {
+        componentClient
+                .forKeyValueEntity(doctorId)
+                .method(DoctorEntity::createDoctor)
+                .invoke(new DoctorEntity.CreateDoctorCommand("Test", doctorId, List.of("Cardiology"), "", Optional.empty()));
+    }
+
+    private void createSchedule(String doctorId, String start, String end) {
+        componentClient
+                .forKeyValueEntity(new Schedule.ScheduleId(doctorId, DATE).toString())
+                .method(ScheduleEntity::createSchedule)
+                .invoke(new Schedule.WorkingHours(time(start), time(end)));
+    }
+
+    private void schedule(String appointmentId, String dateTime) {
+        componentClient
+                .forWorkflow(appointmentId)
+                .method(ScheduleAppointmentWorkflow::schedule)
+                .invoke(new ScheduleAppointmentWorkflow.ScheduleAppointmentCommand(dateTime(dateTime), DELETED_DOCTOR, "patient", "chest pain"));
+
+        Awaitility.await()
+                .atMost(10, TimeUnit.SECONDS)
+                .untilAsserted(() -> assertEquals(Appointment.Status.SCHEDULED, getAppointment(appointmentId).status()));
+    }
+
+    private Appointment getAppointment(String appointmentId) {
+        return componentClient
+                .forEventSourcedEntity(appointmentId)
+                .method(AppointmentEntity::getAppointment)
+                .invoke()
+                .orElseThrow();
+    }
+
+    private Schedule getSchedule(String doctorId) {
+        return componentClient
+                .forKeyValueEntity(new Schedule.ScheduleId(doctorId, DATE).toString())
+                .method(ScheduleEntity::getSchedule)
+                .invoke()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,116 @@
+package com.clinic.application;
+
+import akka.javasdk.testkit.TestKitSupport;
+import com.clinic.domain.Doctor;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DoctorCacheTest extends TestKitSupport {
+
+    @Test
+    public void loadsOnMissAndServesHits() {
+        createDoctor("cache-hit", "Dermatology");
+        var cache = new DoctorCache(componentClient, 10, Duration.ofMinutes(1));
+
+        assertEquals("cache-hit", cache.getDoctor("cache-hit").orElseThrow().id());
+        assertEquals("cache-hit", cache.getDoctor("cache-hit").orElseThrow().id());
+
+        var stats = cache.stats();
+        assertEquals(1, stats.misses());
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.doctors());
+    }
+
+    @Test
+    public void doesNotCacheUnknownDoctors() {
+        var cache = new DoctorCache(componentClient, 10, Duration.ofMinutes(1));
+
+        assertTrue(cache.getDoctor("cache-unknown").isEmpty());
+        assertTrue(cache.getDoctor("cache-unknown").isEmpty());
+
+        assertEquals(2, cache.stats().misses());
+        assertEquals(0, cache.stats().doctors());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        createDoctor("cache-lru-1", "Dermatology");
+        createDoctor("cache-lru-2", "Dermatology");
+        createDoctor("cache-lru-3", "Dermatology");
+        var cache = new DoctorCache(componentClient, 2, Duration.ofMinutes(1));
+
+        cache.getDoctor("cache-lru-1");
+        cache.getDoctor("cache-lru-2");
+        cache.getDoctor("cache-lru-1");
+        cache.getDoctor("cache-lru-3");
+
+        var stats = cache.stats();
+        assertEquals(1, stats.evictions());
+        assertEquals(2, stats.doctors());
+
+        cache.getDoctor("cache-lru-1");
+        assertEquals(2, cache.stats().hits());
+        cache.getDoctor("cache-lru-2");
+        assertEquals(4, cache.stats().misses());
+    }
+
+    @Test
+    public void expiresEntries() {
+        createDoctor("cache-ttl", "Dermatology");
+        var cache = new DoctorCache(componentClient, 10, Duration.ZERO);
+
+        cache.getDoctor("cache-ttl");
+        cache.getDoctor("cache-ttl");
+
+        var stats = cache.stats();
+        assertEquals(0, stats.hits());
+        assertEquals(2, stats.misses());
+        assertEquals(1, stats.expirations());
+    }
+
+    @Test
+    public void updatePatchesCachedEntries() {
+        var moving = createDoctor("cache-moving", "Rheumatology");
+        createDoctor("cache-staying", "Rheumatology");
+        Awaitility.await()
+                .atMost(10, TimeUnit.SECONDS)
+                .untilAsserted(() -> assertEquals(2, componentClient
+                        .forView()
+                        .method(DoctorsView::findBySpecialityKey)
+                        .invoke(DoctorsView.FindBySpecialityKey.of("Rheumatology"))
+                        .doctors()
+                        .size()));
+        var cache = new DoctorCache(componentClient, 10, Duration.ofMinutes(1));
+        assertEquals(2, cache.findBySpeciality("rheumatology").size());
+        assertEquals("Rheumatology", cache.getDoctor("cache-moving").orElseThrow().specialities().getFirst());
+
+        cache.update(new Doctor(moving.id(), moving.firstName(), moving.lastName(), List.of("Allergology"),
+                moving.description(), moving.contact()));
+        cache.update(new Doctor("cache-joining", "Jo", "Ining", List.of(" rheumatology "), "", Optional.empty()));
+
+        var ids = cache.findBySpeciality("Rheumatology").stream().map(DoctorsView.SpecialityRow::id).sorted().toList();
+        assertEquals(List.of("cache-joining", "cache-staying"), ids);
+        assertEquals(List.of("Allergology"), cache.getDoctor("cache-moving").orElseThrow().specialities());
+
+        var stats = cache.stats();
+        assertEquals(2, stats.misses());
+        assertEquals(2, stats.hits());
+        assertEquals(2, stats.doctors());
+    }
+
+    private Doctor createDoctor(String id, String speciality) {
+        var command = new DoctorEntity.CreateDoctorCommand("Test", id, List.of(speciality), "", Optional.empty());
+        componentClient
+                .forKeyValueEntity(id)
+                .method(DoctorEntity::createDoctor)
+                .invoke(command);
+        return new Doctor(id, command.firstName(), command.lastName(), command.specialities(), command.description(), command.contact());
+    }
+}
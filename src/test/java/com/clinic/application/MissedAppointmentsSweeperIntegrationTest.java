@@ -0,0 +1,84 @@
+package com.clinic.application;
+
+import akka.javasdk.testkit.TestKitSupport;
+import com.clinic.domain.Appointment;
+import com.clinic.domain.Schedule;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import static com.clinic.application.DateUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MissedAppointmentsSweeperIntegrationTest extends TestKitSupport {
+
+    private final String DOCTOR_ID = "sweep-doctor";
+    private final LocalDate DATE = date("2031-11-03");
+
+    @Test
+    public void sweepMarksStillScheduledAppointmentsAsMissed() {
+        componentClient
+                .forKeyValueEntity(new Schedule.ScheduleId(DOCTOR_ID, DATE).toString())
+                .method(ScheduleEntity::createSchedule)
+                .invoke(new Schedule.WorkingHours(time("09:00"), time("17:00")));
+        schedule("sweep-1", "2031-11-03T10:00:00");
+        schedule("sweep-2", "2031-11-03T11:00:00");
+        componentClient
+                .forEventSourcedEntity("sweep-2")
+                .method(AppointmentEntity::complete)
+                .invoke();
+
+        Awaitility.await()
+                .atMost(10, TimeUnit.SECONDS)
+                .untilAsserted(() -> {
+                    var schedules = componentClient
+                            .forView()
+                            .method(SchedulesByDoctorView::getSummariesForDate)
+                            .invoke(DATE.toString())
+                            .schedules();
+                    assertTrue(schedules.stream().anyMatch(schedule -> schedule.doctorId().equals(DOCTOR_ID)));
+                });
+
+        componentClient
+                .forTimedAction()
+                .method(MissedAppointmentsSweeper::sweep)
+                .invoke(DATE);
+
+        assertEquals(Appointment.Status.MISSED, status("sweep-1"));
+        assertEquals(Appointment.Status.COMPLETED, status("sweep-2"));
+
+        var sweep = componentClient
+                .forKeyValueEntity(DATE.toString())
+                .method(MissedSweepEntity::getSweep)
+                .invoke()
+                .orElseThrow();
+        assertTrue(sweep.finishedAt().isPresent());
+        assertTrue(sweep.hasSwept(DOCTOR_ID));
+        assertEquals(2, sweep.checked());
+        assertEquals(1, sweep.marked());
+        assertEquals(0, sweep.failed());
+        assertTrue(sweep.failedDoctorIds().isEmpty());
+    }
+
+    private void schedule(String appointmentId, String dateTime) {
+        componentClient
+                .forWorkflow(appointmentId)
+                .method(ScheduleAppointmentWorkflow::schedule)
+                .invoke(new ScheduleAppointmentWorkflow.ScheduleAppointmentCommand(dateTime(dateTime), DOCTOR_ID, "patient", "issue"));
+
+        Awaitility.await()
+                .atMost(10, TimeUnit.SECONDS)
+                .untilAsserted(() -> assertEquals(Appointment.Status.SCHEDULED, status(appointmentId)));
+    }
+
+    private Appointment.Status status(String appointmentId) {
+        return componentClient
+                .forEventSourcedEntity(appointmentId)
+                .method(AppointmentEntity::getAppointment)
+                .invoke()
+                .orElseThrow()
+                .status();
+    }
+}
@@ -7,11 +7,15 @@ import com.clinic.domain.Schedule;
 import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import static com.clinic.application.DateUtils.time;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
 public class ScheduleEntityIntegrationTest extends TestKitSupport {
@@ -84,6 +88,69 @@ public class ScheduleEntityIntegrationTest extends TestKitSupport {
         assertEquals(0, getSchedule(doctorId, date).get().timeSlots().size());
     }
 
+    @Test
+    public void checkAvailability() {
+        String doctorId = "house";
+        String date = "2031-10-25";
+
+        createSchedule(doctorId, date, "10:00", "12:00");
+        scheduleAppointment(doctorId, date, "10:00", "a1");
+        scheduleAppointment(doctorId, date, "11:00", "a2");
+
+        var slots = componentClient
+                .forKeyValueEntity(doctorId + ":" + date)
+                .method(ScheduleEntity::findAvailableSlots)
+                .invoke(new ScheduleEntity.FindAvailableSlotsQuery(Duration.ofMinutes(30), 5, Optional.empty()));
+        assertEquals(List.of(
+                new Schedule.FreeSlot(time("10:30"), time("11:00")),
+                new Schedule.FreeSlot(time("11:30"), time("12:00"))
+        ), slots);
+
+        var later = componentClient
+                .forKeyValueEntity(doctorId + ":" + date)
+                .method(ScheduleEntity::findAvailableSlots)
+                .invoke(new ScheduleEntity.FindAvailableSlotsQuery(Duration.ofMinutes(30), 5, Optional.of(time("11:00"))));
+        assertEquals(List.of(new Schedule.FreeSlot(time("11:30"), time("12:00"))), later);
+
+        assertTrue(isAvailable(doctorId, date, "10:30"));
+        assertFalse(isAvailable(doctorId, date, "10:45"));
+        assertFalse(isAvailable(doctorId, "2031-10-26", "10:30"));
+    }
+
+    @Test
+    public void checkBulkBooking() {
+        String doctorId = "house";
+        String date = "2031-10-27";
+        createSchedule(doctorId, date, "10:00", "12:00");
+
+        var rejected = scheduleAppointments(doctorId, date, true, "10:00", "10:15", "11:00");
+        assertEquals(3, rejected.size());
+        assertTrue(rejected.stream().noneMatch(ScheduleEntity.BookingResult::booked));
+        assertEquals(0, getSchedule(doctorId, date).get().timeSlots().size());
+
+        var bestEffort = scheduleAppointments(doctorId, date, false, "10:00", "10:15", "11:00");
+        assertEquals(List.of(true, false, true), bestEffort.stream().map(ScheduleEntity.BookingResult::booked).toList());
+        assertTrue(bestEffort.get(1).error().isPresent());
+        assertEquals(2, getSchedule(doctorId, date).get().timeSlots().size());
+    }
+
+    private List<ScheduleEntity.BookingResult> scheduleAppointments(String doctorId, String date, boolean allOrNothing, String... startTimes) {
+        var appointments = Arrays.stream(startTimes)
+                .map(startTime -> new ScheduleEntity.ScheduleAppointmentData(time(startTime), Duration.ofMinutes(30), "bulk-" + startTime))
+                .toList();
+        return componentClient
+                .forKeyValueEntity(doctorId + ":" + date)
+                .method(ScheduleEntity::scheduleAppointments)
+                .invoke(new ScheduleEntity.ScheduleAppointmentsData(appointments, allOrNothing));
+    }
+
+    private boolean isAvailable(String doctorId, String date, String startTime) {
+        return componentClient
+                .forKeyValueEntity(doctorId + ":" + date)
+                .method(ScheduleEntity::isAvailable)
+                .invoke(new ScheduleEntity.AvailabilityQuery(time(startTime), Duration.ofMinutes(30)));
+    }
+
     private void createSchedule(String doctorId, String date, String startTime, String endTime) {
         componentClient
                 .forKeyValueEntity(doctorId + ":" + date)
@@ -0,0 +1,64 @@
+package com.clinic.application.ai;
+
+import akka.javasdk.testkit.TestKit;
+import akka.javasdk.testkit.TestKitSupport;
+import akka.javasdk.testkit.TestModelProvider;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UrgencyAgentIntegrationTest extends TestKitSupport {
+
+    private final TestModelProvider urgencyModel = new TestModelProvider();
+
+    @Override
+    protected TestKit.Settings testKitSettings() {
+        return TestKit.Settings.DEFAULT.withModelProvider(UrgencyAgent.class, urgencyModel);
+    }
+
+    @Test
+    public void triagesAllAppointments() {
+        urgencyModel.whenMessage(message -> message.contains("valid-1")).reply("""
+                {"urgencies":[{"appointmentId":"valid-1","urgency":"high"},{"appointmentId":"valid-2","urgency":"Low"}]}""");
+
+        var result = triage(List.of(
+                new UrgencyAgent.TriageItem("valid-1", "chest pain"),
+                new UrgencyAgent.TriageItem("valid-2", "mild rash")));
+
+        assertEquals(Map.of("valid-1", "high", "valid-2", "low"), result.byAppointmentId());
+    }
+
+    @Test
+    public void malformedReplyGivesEmptyResult() {
+        urgencyModel.whenMessage(message -> message.contains("malformed-1")).reply("valid-1 is high, the rest is low");
+
+        var result = triage(List.of(new UrgencyAgent.TriageItem("malformed-1", "chest pain")));
+
+        assertTrue(result.byAppointmentId().isEmpty());
+    }
+
+    @Test
+    public void partialReplyKeepsValidEntries() {
+        urgencyModel.whenMessage(message -> message.contains("partial-1")).reply("""
+                {"urgencies":[{"appointmentId":"partial-1","urgency":"medium"},{"appointmentId":"partial-2","urgency":"urgent"}]}""");
+
+        var result = triage(List.of(
+                new UrgencyAgent.TriageItem("partial-1", "persistent cough"),
+                new UrgencyAgent.TriageItem("partial-2", "broken arm"),
+                new UrgencyAgent.TriageItem("partial-3", "headache")));
+
+        assertEquals(Map.of("partial-1", "medium"), result.byAppointmentId());
+    }
+
+    private UrgencyAgent.TriageResult triage(List<UrgencyAgent.TriageItem> items) {
+        return componentClient
+                .forAgent()
+                .inSession(UUID.randomUUID().toString())
+                .method(UrgencyAgent::triage)
+                .invoke(items);
+    }
+}
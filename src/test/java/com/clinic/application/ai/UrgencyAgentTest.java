@@ -0,0 +1,39 @@
+package com.clinic.application.ai;
+
+import com.clinic.application.ai.UrgencyAgent.Triage;
+import com.clinic.application.ai.UrgencyAgent.TriageResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UrgencyAgentTest {
+
+    @Test
+    public void normalizesValidUrgencies() {
+        var result = new TriageResult(List.of(new Triage("a1", "high"), new Triage("a2", " Medium "), new Triage("a3", "LOW")));
+
+        assertEquals(Map.of("a1", "high", "a2", "medium", "a3", "low"), result.byAppointmentId());
+    }
+
+    @Test
+    public void dropsInvalidEntries() {
+        var result = new TriageResult(Arrays.asList(
+                new Triage("a1", "urgent"),
+                new Triage("a2", null),
+                new Triage(null, "high"),
+                null,
+                new Triage("a3", "low")));
+
+        assertEquals(Map.of("a3", "low"), result.byAppointmentId());
+    }
+
+    @Test
+    public void emptyWithoutUrgencies() {
+        assertTrue(TriageResult.EMPTY.byAppointmentId().isEmpty());
+        assertTrue(new TriageResult(null).byAppointmentId().isEmpty());
+    }
+}
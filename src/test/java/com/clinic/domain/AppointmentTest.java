@@ -0,0 +1,72 @@
+package com.clinic.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AppointmentTest {
+
+    Appointment appointment = new Appointment("a1", LocalDateTime.of(2031, 1, 1, 10, 0), "house", "patient", "issue");
+
+    @Test
+    public void appendsKeepOlderVersionsUnchanged() {
+        var one = appointment.addPrescription("p1");
+        var two = one.addPrescription("p2");
+        var branch = one.addPrescription("other");
+        var three = two.addPrescription("p3");
+
+        assertEquals(List.of(), appointment.prescriptions());
+        assertEquals(List.of("p1"), one.prescriptions());
+        assertEquals(List.of("p1", "p2"), two.prescriptions());
+        assertEquals(List.of("p1", "other"), branch.prescriptions());
+        assertEquals(List.of("p1", "p2", "p3"), three.prescriptions());
+    }
+
+    @Test
+    public void replayMatchesPlainList() {
+        var expected = new ArrayList<String>();
+        var state = appointment.onEvent(new AppointmentEvents.Scheduled());
+        for (int i = 0; i < 1000; i++) {
+            state = state.onEvent(new AppointmentEvents.AddedPrescription("p" + i));
+            expected.add("p" + i);
+        }
+
+        assertEquals(expected, state.prescriptions());
+        assertEquals(Appointment.Status.SCHEDULED, state.status());
+    }
+
+    @Test
+    public void builderReplayMatchesEventByEvent() {
+        var created = new AppointmentEvents.AppointmentCreated(appointment.dateTime(), "house", "patient", "issue");
+        var events = new ArrayList<AppointmentEvents>();
+        events.add(new AppointmentEvents.Scheduled());
+        events.add(new AppointmentEvents.AddedDoctorNotes("notes"));
+        for (int i = 0; i < 100; i++)
+            events.add(new AppointmentEvents.AddedPrescription("p" + i));
+        events.add(new AppointmentEvents.Rescheduled(LocalDateTime.of(2031, 1, 2, 9, 0), "wilson"));
+        events.add(new AppointmentEvents.Completed());
+
+        var expected = appointment;
+        for (var event : events)
+            expected = expected.onEvent(event);
+        var replayed = Appointment.replay("a1", created, events);
+
+        assertEquals(expected, replayed);
+        assertEquals("more", replayed.addPrescription("more").prescriptions().get(100));
+        assertThrows(IllegalStateException.class, () -> replayed.toBuilder().apply(created));
+    }
+
+    @Test
+    public void restoredStateCanBeAppendedTo() {
+        var restored = new Appointment("a1", appointment.dateTime(), "house", "patient", "issue",
+                Optional.empty(), new ArrayList<>(List.of("p1")), Appointment.Status.SCHEDULED);
+
+        assertEquals(List.of("p1", "p2"), restored.addPrescription("p2").prescriptions());
+        assertThrows(UnsupportedOperationException.class, () -> restored.prescriptions().add("p3"));
+    }
+}
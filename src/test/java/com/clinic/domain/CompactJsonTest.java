@@ -0,0 +1,95 @@
+package com.clinic.domain;
+
+import akka.javasdk.JsonSupport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompactJsonTest {
+
+    ObjectMapper mapper = JsonSupport.getObjectMapper();
+
+    Schedule schedule = new Schedule(new Schedule.ScheduleId("house", LocalDate.of(2031, 1, 1)),
+            new Schedule.WorkingHours(LocalTime.of(8, 0), LocalTime.of(18, 0)))
+            .scheduleAppointment(LocalTime.of(8, 0), Duration.ofMinutes(30), "a1")
+            .scheduleAppointment(LocalTime.of(9, 0, 30), Duration.ofMinutes(30), "a2");
+
+    @Test
+    public void storedScheduleRoundTrip() throws Exception {
+        var json = mapper.writeValueAsString(StoredSchedule.of(schedule));
+
+        assertTrue(json.contains("[480,510,\"a1\",1]"), json);
+        assertTrue(json.contains("[\"09:00:30\",\"09:30:30\",\"a2\",1]"), json);
+        assertEquals(schedule, mapper.readValue(json, StoredSchedule.class).toSchedule());
+    }
+
+    @Test
+    public void scheduleStaysReadable() throws Exception {
+        var json = mapper.writeValueAsString(schedule);
+
+        assertTrue(json.contains("{\"startTime\":\"08:00:00\",\"endTime\":\"08:30:00\",\"appointmentId\":\"a1\"}"), json);
+        assertEquals(schedule, mapper.readValue(json, Schedule.class));
+    }
+
+    @Test
+    public void readsLegacySchedule() throws Exception {
+        var legacy = """
+                {"id":{"doctorId":"house","date":"2031-01-01"},
+                 "workingHours":{"startTime":"08:00:00","endTime":"18:00:00"},
+                 "timeSlots":[{"startTime":"08:00:00","endTime":"08:30:00","appointmentId":"a1"},
+                              {"startTime":"09:00:30","endTime":"09:30:30","appointmentId":"a2"}],
+                 "status":"ACTIVE"}""";
+
+        assertEquals(schedule, mapper.readValue(legacy, StoredSchedule.class).toSchedule());
+    }
+
+    @Test
+    public void readsSlotsWithoutVersion() throws Exception {
+        var unversioned = """
+                {"id":{"doctorId":"house","date":"2031-01-01"},
+                 "workingHours":{"startTime":"08:00:00","endTime":"18:00:00"},
+                 "timeSlots":[[480,510,"a1"],["09:00:30","09:30:30","a2"]],
+                 "status":"ACTIVE"}""";
+
+        assertEquals(schedule, mapper.readValue(unversioned, StoredSchedule.class).toSchedule());
+    }
+
+    @Test
+    public void rejectsUnknownSlotVersion() {
+        var future = """
+                {"id":{"doctorId":"house","date":"2031-01-01"},
+                 "workingHours":{"startTime":"08:00:00","endTime":"18:00:00"},
+                 "timeSlots":[[480,510,"a1",2]],
+                 "status":"ACTIVE"}""";
+
+        assertThrows(MismatchedInputException.class, () -> mapper.readValue(future, StoredSchedule.class));
+    }
+
+    @Test
+    public void eventRoundTrip() throws Exception {
+        var created = new AppointmentEvents.AppointmentCreated(LocalDateTime.of(2031, 1, 2, 9, 45), "house", "patient", "issue");
+        var json = mapper.writeValueAsString(created);
+
+        assertTrue(json.contains("203101020945"), json);
+        assertEquals(created, mapper.readValue(json, AppointmentEvents.AppointmentCreated.class));
+
+        var rescheduled = new AppointmentEvents.Rescheduled(LocalDateTime.of(2031, 1, 2, 9, 45, 10), "house");
+        assertEquals(rescheduled, mapper.readValue(mapper.writeValueAsString(rescheduled), AppointmentEvents.Rescheduled.class));
+    }
+
+    @Test
+    public void readsLegacyEvent() throws Exception {
+        var legacy = """
+                {"dateTime":"2031-01-02T09:45:00","doctorId":"house","patientId":"patient","issue":"issue"}""";
+
+        assertEquals(new AppointmentEvents.AppointmentCreated(LocalDateTime.of(2031, 1, 2, 9, 45), "house", "patient", "issue"),
+                mapper.readValue(legacy, AppointmentEvents.AppointmentCreated.class));
+    }
+}
@@ -0,0 +1,15 @@
+package com.clinic.domain;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class DoctorTest {
+
+    @Test
+    public void specialityKeyIgnoresCaseAndSpacing() {
+        assertEquals("general practitioner", Doctor.specialityKey(" General   Practitioner "));
+        assertEquals("general practitioner", Doctor.specialityKey("general\tpractitioner"));
+        assertEquals("cardiology", Doctor.specialityKey("CARDIOLOGY"));
+    }
+}
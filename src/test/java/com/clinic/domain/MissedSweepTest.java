@@ -0,0 +1,74 @@
+package com.clinic.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MissedSweepTest {
+
+    LocalDate date = LocalDate.of(2031, 1, 1);
+    Instant midnight = Instant.parse("2031-01-02T00:00:00Z");
+
+    @Test
+    public void recordsEachDoctorOnce() {
+        var sweep = MissedSweep.start(date, midnight)
+                .record(new MissedSweep.DoctorResult("house", 3, 1, 0))
+                .record(new MissedSweep.DoctorResult("wilson", 2, 2, 1))
+                .record(new MissedSweep.DoctorResult("house", 3, 1, 0));
+
+        assertEquals(List.of("house", "wilson"), sweep.sweptDoctorIds());
+        assertEquals(5, sweep.checked());
+        assertEquals(3, sweep.marked());
+        assertEquals(1, sweep.failed());
+        assertTrue(sweep.hasSwept("wilson"));
+        assertFalse(sweep.hasSwept("cuddy"));
+    }
+
+    @Test
+    public void recordsFailedDoctorsUntilTheyAreSwept() {
+        var sweep = MissedSweep.start(date, midnight)
+                .recordFailure(new MissedSweep.DoctorResult("house", 3, 1, 2))
+                .recordFailure(new MissedSweep.DoctorResult("wilson", 0, 0, 0))
+                .failRun();
+
+        assertEquals(List.of("house", "wilson"), sweep.failedDoctorIds());
+        assertEquals(1, sweep.failedRuns());
+        assertEquals(0, sweep.checked());
+        assertEquals(1, sweep.marked());
+        assertEquals(2, sweep.failed());
+        assertFalse(sweep.hasSwept("house"));
+
+        var retried = sweep
+                .recordFailure(new MissedSweep.DoctorResult("house", 3, 0, 1))
+                .record(new MissedSweep.DoctorResult("wilson", 2, 1, 0))
+                .failRun()
+                .record(new MissedSweep.DoctorResult("house", 3, 1, 0))
+                .recordFailure(new MissedSweep.DoctorResult("house", 3, 0, 1));
+
+        assertEquals(List.of(), retried.failedDoctorIds());
+        assertEquals(List.of("wilson", "house"), retried.sweptDoctorIds());
+        assertEquals(2, retried.failedRuns());
+        assertEquals(5, retried.checked());
+        assertEquals(3, retried.marked());
+        assertEquals(3, retried.failed());
+    }
+
+    @Test
+    public void reportsThroughputAndLag() {
+        var sweep = MissedSweep.start(date, midnight.plusSeconds(60))
+                .record(new MissedSweep.DoctorResult("house", 100, 10, 0));
+
+        assertTrue(sweep.throughput().isEmpty());
+        assertEquals(Duration.ofMinutes(5), sweep.lag(ZoneOffset.UTC, midnight.plusSeconds(300)));
+
+        var finished = sweep.finish(midnight.plusSeconds(62));
+        assertEquals(50.0, finished.throughput().get());
+        assertEquals(Duration.ofSeconds(62), finished.lag(ZoneOffset.UTC, midnight.plusSeconds(300)));
+    }
+}
@@ -0,0 +1,138 @@
+package com.clinic.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScheduleOccupancyTest {
+
+    Schedule.ScheduleId houseScheduleId = new Schedule.ScheduleId("house", LocalDate.of(2021, 1, 1));
+    Schedule.WorkingHours defaultWorkingHours = new Schedule.WorkingHours(LocalTime.of(8, 0), LocalTime.of(18, 0));
+
+    @Test
+    public void emptyScheduleIsOneGap() {
+        var schedule = new Schedule(houseScheduleId, defaultWorkingHours);
+
+        assertEquals(List.of(new Schedule.FreeSlot(LocalTime.of(8, 0), LocalTime.of(18, 0))), schedule.freeSlots());
+        assertTrue(schedule.isFree(LocalTime.of(8, 0), Duration.ofHours(10)));
+        assertFalse(schedule.isFree(LocalTime.of(7, 55), Duration.ofMinutes(10)));
+        assertFalse(schedule.isFree(LocalTime.of(17, 55), Duration.ofMinutes(10)));
+    }
+
+    @Test
+    public void gapsBetweenSlots() {
+        var schedule = new Schedule(houseScheduleId, defaultWorkingHours)
+                .scheduleAppointment(LocalTime.of(8, 0), Duration.ofMinutes(30), "a1")
+                .scheduleAppointment(LocalTime.of(8, 50), Duration.ofMinutes(30), "a2")
+                .scheduleAppointment(LocalTime.of(9, 20), Duration.ofMinutes(30), "a3");
+
+        assertEquals(List.of(
+                new Schedule.FreeSlot(LocalTime.of(8, 30), LocalTime.of(8, 50)),
+                new Schedule.FreeSlot(LocalTime.of(9, 50), LocalTime.of(18, 0))
+        ), schedule.freeSlots());
+
+        assertEquals(LocalTime.of(8, 30), schedule.firstFreeSlot(Duration.ofMinutes(20)).get().startTime());
+        assertEquals(LocalTime.of(9, 50), schedule.firstFreeSlot(Duration.ofMinutes(30)).get().startTime());
+        assertTrue(schedule.isFree(LocalTime.of(8, 30), Duration.ofMinutes(20)));
+        assertFalse(schedule.isFree(LocalTime.of(8, 30), Duration.ofMinutes(21)));
+        assertTrue(schedule.firstFreeSlot(Duration.ofHours(9)).isEmpty());
+    }
+
+    @Test
+    public void freeSlotsWithLimitAndLowerBound() {
+        var schedule = new Schedule(houseScheduleId, defaultWorkingHours)
+                .scheduleAppointment(LocalTime.of(9, 0), Duration.ofMinutes(30), "a1")
+                .scheduleAppointment(LocalTime.of(10, 0), Duration.ofMinutes(30), "a2")
+                .scheduleAppointment(LocalTime.of(11, 0), Duration.ofMinutes(30), "a3");
+
+        assertEquals(List.of(
+                new Schedule.FreeSlot(LocalTime.of(9, 45), LocalTime.of(10, 0)),
+                new Schedule.FreeSlot(LocalTime.of(10, 30), LocalTime.of(11, 0))
+        ), schedule.freeSlots(Duration.ofMinutes(15), LocalTime.of(9, 45), 2));
+
+        assertEquals(List.of(new Schedule.FreeSlot(LocalTime.of(10, 30), LocalTime.of(11, 0))),
+                schedule.freeSlots(Duration.ofMinutes(30), LocalTime.of(9, 45), 1));
+        assertEquals(List.of(new Schedule.FreeSlot(LocalTime.of(8, 0), LocalTime.of(9, 0))),
+                schedule.freeSlots(Duration.ofMinutes(5), LocalTime.of(6, 0), 1));
+        assertTrue(schedule.freeSlots(Duration.ofMinutes(5), LocalTime.of(18, 0), 10).isEmpty());
+        assertTrue(schedule.freeSlots(Duration.ofMinutes(5), LocalTime.of(8, 0), 0).isEmpty());
+    }
+
+    @Test
+    public void removingASlotKeepsTouchingNeighboursBusy() {
+        var schedule = new Schedule(houseScheduleId, defaultWorkingHours)
+                .scheduleAppointment(LocalTime.of(10, 0), Duration.ofMinutes(30), "a1")
+                .scheduleAppointment(LocalTime.of(10, 30), Duration.ofMinutes(30), "a2")
+                .scheduleAppointment(LocalTime.of(11, 0), Duration.ofMinutes(30), "a3")
+                .removeTimeSlot("a2", LocalTime.of(10, 30));
+
+        assertTrue(schedule.isFree(LocalTime.of(10, 30), Duration.ofMinutes(30)));
+        assertFalse(schedule.isFree(LocalTime.of(10, 29), Duration.ofMinutes(30)));
+        assertFalse(schedule.isFree(LocalTime.of(10, 31), Duration.ofMinutes(30)));
+    }
+
+    @Test
+    public void bitmapAgreesWithSlotList() {
+        var random = new Random(42);
+        for (int run = 0; run < 50; run++) {
+            var schedule = new Schedule(houseScheduleId, defaultWorkingHours);
+            for (int step = 0; step < 200; step++) {
+                if (!schedule.timeSlots().isEmpty() && random.nextInt(4) == 0) {
+                    var slot = schedule.timeSlots().get(random.nextInt(schedule.timeSlots().size()));
+                    schedule = schedule.removeTimeSlot(slot.appointmentId(), slot.startTime());
+                } else {
+                    var start = LocalTime.of(7, 0).plusMinutes(random.nextInt(11 * 60));
+                    var duration = Duration.ofMinutes(5 + random.nextInt(60));
+                    try {
+                        schedule = schedule.scheduleAppointment(start, duration, "a" + step);
+                    } catch (IllegalArgumentException e) {
+                        assertFalse(schedule.isFree(start, duration), "rejected booking reported as free");
+                        continue;
+                    }
+                }
+
+                assertEquals(gapsFromSlots(schedule), schedule.freeSlots());
+                assertEquals(schedule, new Schedule(houseScheduleId, defaultWorkingHours, new ArrayList<>(schedule.timeSlots()), Schedule.Status.ACTIVE));
+
+                var start = LocalTime.of(8, 0).plusMinutes(random.nextInt(10 * 60));
+                var duration = Duration.ofMinutes(5 + random.nextInt(90));
+                assertEquals(isFreeFromSlots(schedule, start, duration), schedule.isFree(start, duration));
+                assertEquals(firstGapFromSlots(schedule, duration), schedule.firstFreeSlot(duration).map(Schedule.FreeSlot::startTime));
+            }
+        }
+    }
+
+    private List<Schedule.FreeSlot> gapsFromSlots(Schedule schedule) {
+        var gaps = new ArrayList<Schedule.FreeSlot>();
+        var lastEndTime = schedule.workingHours().startTime();
+        for (var slot : schedule.timeSlots()) {
+            if (slot.startTime().isAfter(lastEndTime))
+                gaps.add(new Schedule.FreeSlot(lastEndTime, slot.startTime()));
+            lastEndTime = slot.endTime();
+        }
+        if (schedule.workingHours().endTime().isAfter(lastEndTime))
+            gaps.add(new Schedule.FreeSlot(lastEndTime, schedule.workingHours().endTime()));
+        return gaps;
+    }
+
+    private Optional<LocalTime> firstGapFromSlots(Schedule schedule, Duration duration) {
+        return gapsFromSlots(schedule).stream()
+                .filter(gap -> gap.duration().compareTo(duration) >= 0)
+                .map(Schedule.FreeSlot::startTime)
+                .findFirst();
+    }
+
+    private boolean isFreeFromSlots(Schedule schedule, LocalTime start, Duration duration) {
+        var candidate = new Schedule.TimeSchedule(start, start.plus(duration), "candidate");
+        return schedule.workingHours().isInWorkingHours(candidate)
+                && schedule.timeSlots().stream().noneMatch(candidate::overlaps);
+    }
+}
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Test;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -111,6 +112,65 @@ public class ScheduleTest {
         assertEquals(0, schedule.timeSlots().size());
     }
 
+    @Test
+    public void timeSlotsAreKeptInStartTimeOrder() {
+        var schedule = new Schedule(houseScheduleId, defaultWorkingHours)
+                .scheduleAppointment(LocalTime.of(14, 0), Duration.ofMinutes(30), "a1")
+                .scheduleAppointment(LocalTime.of(10, 0), Duration.ofMinutes(30), "a2")
+                .scheduleAppointment(LocalTime.of(12, 0), Duration.ofMinutes(30), "a3")
+                .scheduleAppointment(LocalTime.of(10, 30), Duration.ofMinutes(30), "a4");
+
+        assertEquals(List.of("a2", "a4", "a3", "a1"), schedule.timeSlots().stream().map(Schedule.TimeSchedule::appointmentId).toList());
+    }
+
+    @Test
+    public void restoreFromUnorderedSlots() {
+        var slots = List.of(appointment("15:00", "15:30"), appointment("10:00", "10:30"), appointment("12:00", "13:00"));
+        var schedule = new Schedule(houseScheduleId, defaultWorkingHours, slots, Schedule.Status.ACTIVE);
+
+        assertEquals(LocalTime.of(10, 0), schedule.timeSlots().get(0).startTime());
+        assertEquals(LocalTime.of(15, 0), schedule.timeSlots().get(2).startTime());
+        assertEquals(new Schedule(houseScheduleId, defaultWorkingHours, schedule.timeSlots(), Schedule.Status.ACTIVE), schedule);
+    }
+
+    @Test
+    public void restoreFromOverlappingSlots() {
+        assertThrows(IllegalArgumentException.class, () ->
+                new Schedule(houseScheduleId, defaultWorkingHours, List.of(appointment("12:00", "14:00"), appointment("10:00", "12:30")), Schedule.Status.ACTIVE)
+        );
+        assertThrows(IllegalArgumentException.class, () ->
+                new Schedule(houseScheduleId, defaultWorkingHours, List.of(appointment("09:00", "10:30")), Schedule.Status.ACTIVE)
+        );
+    }
+
+    @Test
+    public void removeAppointment() {
+        var schedule = new Schedule(houseScheduleId, defaultWorkingHours)
+                .scheduleAppointment(LocalTime.of(10, 0), Duration.ofMinutes(30), "a1")
+                .scheduleAppointment(LocalTime.of(11, 0), Duration.ofMinutes(30), "a2");
+
+        var newSchedule = schedule.removeTimeSlot("a1", LocalTime.of(10, 0));
+        assertEquals(1, newSchedule.timeSlots().size());
+        assertEquals("a2", newSchedule.timeSlots().get(0).appointmentId());
+
+        assertThrows(IllegalArgumentException.class, () -> schedule.removeTimeSlot("a2", LocalTime.of(10, 0)));
+        assertThrows(IllegalArgumentException.class, () -> schedule.removeTimeSlot("a1", LocalTime.of(10, 5)));
+
+        var rebooked = newSchedule.scheduleAppointment(LocalTime.of(10, 0), Duration.ofMinutes(60), "a3");
+        assertEquals(2, rebooked.timeSlots().size());
+    }
+
+    @Test
+    public void bookedAndWorkingMinutes() {
+        var schedule = new Schedule(houseScheduleId, defaultWorkingHours)
+                .scheduleAppointment(LocalTime.of(10, 0), Duration.ofMinutes(30), "a1")
+                .scheduleAppointment(LocalTime.of(11, 0), Duration.ofMinutes(45), "a2");
+
+        assertEquals(75, schedule.bookedMinutes());
+        assertEquals(480, schedule.workingMinutes());
+        assertEquals(0, new Schedule(houseScheduleId, defaultWorkingHours).bookedMinutes());
+    }
+
     @Test
     public void serializeId() {
         assertEquals("house:2021-01-01", houseScheduleId.toString());
@@ -118,6 +178,24 @@ public class ScheduleTest {
         assertEquals(houseScheduleId, Schedule.ScheduleId.fromString("house:2021-01-01"));
     }
 
+    @Test
+    public void serializeIdWithSeparatorInDoctorId() {
+        var id = new Schedule.ScheduleId("dept:house", LocalDate.of(2031, 12, 31));
+        assertEquals("dept:house:2031-12-31", id.toString());
+        assertEquals(id, Schedule.ScheduleId.fromString(id.toString()));
+
+        var farFuture = new Schedule.ScheduleId("house", LocalDate.of(12021, 1, 1));
+        assertEquals(farFuture, Schedule.ScheduleId.fromString(farFuture.toString()));
+    }
+
+    @Test
+    public void parseInvalidId() {
+        assertThrows(IllegalArgumentException.class, () -> Schedule.ScheduleId.fromString("house"));
+        assertThrows(IllegalArgumentException.class, () -> Schedule.ScheduleId.fromString("house:2021-13-01"));
+        assertThrows(IllegalArgumentException.class, () -> Schedule.ScheduleId.fromString("house:2021-0a-01"));
+        assertThrows(IllegalArgumentException.class, () -> Schedule.ScheduleId.fromString("house:yesterday"));
+    }
+
     private Schedule.TimeSchedule appointment(String startTime, String endTime) {
         return new Schedule.TimeSchedule(LocalTime.parse(startTime), LocalTime.parse(endTime), "a1");
     }
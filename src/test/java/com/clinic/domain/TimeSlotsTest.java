@@ -0,0 +1,77 @@
+package com.clinic.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimeSlotsTest {
+
+    @Test
+    public void olderVersionsAreUnchanged() {
+        var empty = TimeSlots.EMPTY;
+        var one = empty.insert(slot(600, "a1"));
+        var two = one.insert(slot(660, "a2"));
+        var removed = two.remove("a1", LocalTime.of(10, 0));
+
+        assertEquals(0, empty.size());
+        assertEquals(List.of(slot(600, "a1")), one);
+        assertEquals(List.of(slot(600, "a1"), slot(660, "a2")), two);
+        assertEquals(List.of(slot(660, "a2")), removed);
+    }
+
+    @Test
+    public void matchesSortedReference() {
+        var random = new Random(7);
+        var reference = new TreeMap<LocalTime, Schedule.TimeSchedule>();
+        var slots = TimeSlots.EMPTY;
+
+        for (int step = 0; step < 5000; step++) {
+            if (!reference.isEmpty() && random.nextInt(3) == 0) {
+                var victim = new ArrayList<>(reference.values()).get(random.nextInt(reference.size()));
+                slots = slots.remove(victim.appointmentId(), victim.startTime());
+                reference.remove(victim.startTime());
+            } else {
+                var candidate = slot(random.nextInt(24 * 60 - 10), "a" + step);
+                var floor = reference.floorEntry(candidate.startTime());
+                var ceiling = reference.ceilingEntry(candidate.startTime());
+                var conflicts = (floor != null && floor.getValue().overlaps(candidate)) || (ceiling != null && ceiling.getValue().overlaps(candidate));
+                if (conflicts) {
+                    var current = slots;
+                    assertThrows(IllegalArgumentException.class, () -> current.insert(candidate));
+                } else {
+                    slots = slots.insert(candidate);
+                    reference.put(candidate.startTime(), candidate);
+                }
+            }
+
+            assertEquals(reference.size(), slots.size());
+            if (step % 100 == 0) {
+                var expected = new ArrayList<>(reference.values());
+                assertEquals(expected, slots);
+                for (int i = 0; i < expected.size(); i++)
+                    assertSame(expected.get(i), slots.get(i));
+            }
+        }
+        assertEquals(slots, TimeSlots.of(new ArrayList<>(slots)));
+    }
+
+    @Test
+    public void removeUnknownSlot() {
+        var slots = TimeSlots.EMPTY.insert(slot(600, "a1"));
+
+        assertThrows(IllegalArgumentException.class, () -> slots.remove("a2", LocalTime.of(10, 0)));
+        assertThrows(IllegalArgumentException.class, () -> slots.remove("a1", LocalTime.of(10, 1)));
+        assertThrows(IllegalArgumentException.class, () -> TimeSlots.EMPTY.remove("a1", LocalTime.of(10, 0)));
+    }
+
+    private Schedule.TimeSchedule slot(int startMinute, String appointmentId) {
+        var start = LocalTime.of(startMinute / 60, startMinute % 60);
+        return new Schedule.TimeSchedule(start, start.plusMinutes(10), appointmentId);
+    }
+}
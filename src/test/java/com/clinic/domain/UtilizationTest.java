@@ -0,0 +1,77 @@
+package com.clinic.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UtilizationTest {
+
+    Schedule.ScheduleId monday = new Schedule.ScheduleId("house", LocalDate.of(2031, 1, 6));
+    Schedule.ScheduleId tuesday = new Schedule.ScheduleId("house", LocalDate.of(2031, 1, 7));
+    Schedule.WorkingHours workingHours = new Schedule.WorkingHours(LocalTime.of(9, 0), LocalTime.of(13, 0));
+
+    @Test
+    public void changedDayMovesTotalByDifference() {
+        var schedule = new Schedule(monday, workingHours);
+        var utilization = Utilization.empty()
+                .record(monday.toString(), Utilization.Day.of(schedule))
+                .record(tuesday.toString(), Utilization.Day.of(new Schedule(tuesday, workingHours)));
+        assertEquals(new Utilization.Day(0, 480, 0), utilization.total());
+
+        var booked = schedule.scheduleAppointment(LocalTime.of(9, 0), Duration.ofMinutes(60), "a1");
+        utilization = utilization.record(monday.toString(), Utilization.Day.of(booked));
+        assertEquals(new Utilization.Day(60, 480, 1), utilization.total());
+        assertEquals(0.125, utilization.total().rate().orElseThrow());
+    }
+
+    @Test
+    public void recordingSameDayTwiceChangesNothing() {
+        var day = Utilization.Day.of(new Schedule(monday, workingHours)
+                .scheduleAppointment(LocalTime.of(10, 0), Duration.ofMinutes(30), "a1"));
+        var once = Utilization.empty().record(monday.toString(), day);
+
+        assertSame(once, once.record(monday.toString(), day));
+        assertEquals(new Utilization.Day(30, 240, 1), once.total());
+    }
+
+    @Test
+    public void deletedScheduleIsRemoved() {
+        var schedule = new Schedule(monday, workingHours);
+        var utilization = Utilization.empty()
+                .record(monday.toString(), Utilization.Day.of(schedule))
+                .record(monday.toString(), Utilization.Day.of(schedule.delete()));
+
+        assertEquals(Utilization.Day.EMPTY, utilization.total());
+        assertTrue(utilization.days().isEmpty());
+        assertTrue(utilization.total().rate().isEmpty());
+    }
+
+    @Test
+    public void keepsSpecialitiesOfEachSchedule() {
+        var day = Utilization.Day.of(new Schedule(monday, workingHours));
+        var utilization = Utilization.empty()
+                .record(monday.toString(), day, List.of("cardiology"))
+                .record(tuesday.toString(), day, List.of("cardiology"));
+        assertEquals(List.of("cardiology"), utilization.specialityKeysOf(monday.toString()));
+
+        var moved = utilization.record(monday.toString(), day, List.of("neurology"));
+        assertNotSame(utilization, moved);
+        assertEquals(List.of("neurology"), moved.specialityKeysOf(monday.toString()));
+        assertEquals(new Utilization.Day(0, 480, 0), moved.total());
+
+        var deleted = moved.record(monday.toString(), Utilization.Day.EMPTY, List.of("neurology"));
+        assertEquals(List.of(), deleted.specialityKeysOf(monday.toString()));
+        assertEquals(List.of("cardiology"), deleted.specialityKeysOf(tuesday.toString()));
+    }
+
+    @Test
+    public void isoWeek() {
+        assertEquals("2031-W02", Utilization.weekOf(LocalDate.of(2031, 1, 6)));
+        assertEquals("2026-W53", Utilization.weekOf(LocalDate.of(2027, 1, 1)));
+    }
+}